@@ -0,0 +1,15 @@
+package com.regression.framework.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.support.converter.AbstractJackson2MessageConverter;
+import org.springframework.util.MimeType;
+
+// Binary JSON (Smile) payloads: same object model and type headers as the JSON converter, smaller on the wire
+public class SmileMessageConverter extends AbstractJackson2MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-jackson-smile";
+
+    public SmileMessageConverter(ObjectMapper smileMapper) {
+        super(smileMapper, MimeType.valueOf(CONTENT_TYPE), "*");
+    }
+}
@@ -0,0 +1,26 @@
+package com.regression.framework.messaging;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.support.postprocessor.GZipPostProcessor;
+
+// Gzips only payloads large enough to benefit; small messages skip the CPU cost entirely.
+// Receivers undo it with DelegatingDecompressingPostProcessor, keyed on the content encoding.
+public class ThresholdGZipPostProcessor implements MessagePostProcessor {
+
+    private final int thresholdBytes;
+    private final GZipPostProcessor gzip = new GZipPostProcessor();
+
+    public ThresholdGZipPostProcessor(int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public Message postProcessMessage(Message message) throws AmqpException {
+        if (thresholdBytes <= 0 || message.getBody().length < thresholdBytes) {
+            return message;
+        }
+        return gzip.postProcessMessage(message);
+    }
+}
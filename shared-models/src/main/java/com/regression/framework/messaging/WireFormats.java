@@ -0,0 +1,35 @@
+package com.regression.framework.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+// Builds the converter both services share: reads JSON or Smile by content type, writes the configured format
+public final class WireFormats {
+
+    public static final String JSON = "json";
+    public static final String SMILE = "smile";
+
+    private WireFormats() {}
+
+    public static MessageConverter messageConverter(String writeFormat) {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter(newMapper(new ObjectMapper()));
+        SmileMessageConverter smile = new SmileMessageConverter(newMapper(new ObjectMapper(new SmileFactory())));
+
+        // The default delegate handles outgoing messages and anything without a known content type
+        MessageConverter writer = SMILE.equalsIgnoreCase(writeFormat) ? smile : json;
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(writer);
+        converter.addDelegate(MimeTypeUtils.APPLICATION_JSON_VALUE, json);
+        converter.addDelegate(SmileMessageConverter.CONTENT_TYPE, smile);
+        return converter;
+    }
+
+    private static ObjectMapper newMapper(ObjectMapper mapper) {
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+}
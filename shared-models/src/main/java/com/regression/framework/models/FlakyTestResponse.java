@@ -0,0 +1,39 @@
+package com.regression.framework.models;
+
+import java.time.LocalDateTime;
+
+// Flakiness of one test on one environment, as served by /api/tests/flaky
+public class FlakyTestResponse {
+    private String testName;
+    private String environment;
+    private Double flipScore;      // EWMA of pass/fail flips, 0 (stable) .. 1 (flips every run)
+    private Integer samples;
+    private String lastStatus;
+    private Boolean quarantined;
+    private LocalDateTime lastUpdated;
+
+    // No-args constructor
+    public FlakyTestResponse() {}
+
+    // Getters and Setters
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+
+    public String getEnvironment() { return environment; }
+    public void setEnvironment(String environment) { this.environment = environment; }
+
+    public Double getFlipScore() { return flipScore; }
+    public void setFlipScore(Double flipScore) { this.flipScore = flipScore; }
+
+    public Integer getSamples() { return samples; }
+    public void setSamples(Integer samples) { this.samples = samples; }
+
+    public String getLastStatus() { return lastStatus; }
+    public void setLastStatus(String lastStatus) { this.lastStatus = lastStatus; }
+
+    public Boolean getQuarantined() { return quarantined; }
+    public void setQuarantined(Boolean quarantined) { this.quarantined = quarantined; }
+
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+}
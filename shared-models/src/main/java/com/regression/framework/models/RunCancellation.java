@@ -0,0 +1,28 @@
+package com.regression.framework.models;
+
+import java.time.LocalDateTime;
+
+// Broadcast to every worker when a run is stopped or aborted
+public class RunCancellation {
+    private String runId;
+    private String reason;
+    private LocalDateTime requestedAt;
+
+    public RunCancellation() {}
+
+    public RunCancellation(String runId, String reason) {
+        this.runId = runId;
+        this.reason = reason;
+        this.requestedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public LocalDateTime getRequestedAt() { return requestedAt; }
+    public void setRequestedAt(LocalDateTime requestedAt) { this.requestedAt = requestedAt; }
+}
@@ -0,0 +1,48 @@
+package com.regression.framework.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class RunTimelineResponse {
+    private String runId;
+    private LocalDateTime startTime;    // first test start across all shards
+    private long wallMillis;            // first test start to last test end
+    private int testCount;
+    private List<ShardTimeline> shards;
+    private String criticalJobId;       // the gating shard that finished last
+    private long criticalIdleMillis;    // time the critical shard spent not running any test
+    private List<TestCaseResultResponse> criticalPath;  // its longest tests, longest first
+
+    public RunTimelineResponse() {}
+
+    public RunTimelineResponse(String runId) {
+        this.runId = runId;
+        this.shards = List.of();
+        this.criticalPath = List.of();
+    }
+
+    // Getters and Setters
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public long getWallMillis() { return wallMillis; }
+    public void setWallMillis(long wallMillis) { this.wallMillis = wallMillis; }
+
+    public int getTestCount() { return testCount; }
+    public void setTestCount(int testCount) { this.testCount = testCount; }
+
+    public List<ShardTimeline> getShards() { return shards; }
+    public void setShards(List<ShardTimeline> shards) { this.shards = shards; }
+
+    public String getCriticalJobId() { return criticalJobId; }
+    public void setCriticalJobId(String criticalJobId) { this.criticalJobId = criticalJobId; }
+
+    public long getCriticalIdleMillis() { return criticalIdleMillis; }
+    public void setCriticalIdleMillis(long criticalIdleMillis) { this.criticalIdleMillis = criticalIdleMillis; }
+
+    public List<TestCaseResultResponse> getCriticalPath() { return criticalPath; }
+    public void setCriticalPath(List<TestCaseResultResponse> criticalPath) { this.criticalPath = criticalPath; }
+}
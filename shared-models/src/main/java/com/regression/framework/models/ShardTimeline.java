@@ -0,0 +1,40 @@
+package com.regression.framework.models;
+
+public class ShardTimeline {
+    private String jobId;
+    private boolean quarantine;     // the quarantine job; never sets the run's wall time
+    private int testCount;
+    private long startMillis;       // offsets from the run's first test start
+    private long endMillis;
+    private long busyMillis;        // summed test time; exceeds the span when tests ran in parallel
+    private boolean critical;
+
+    public ShardTimeline() {}
+
+    public ShardTimeline(String jobId, boolean quarantine) {
+        this.jobId = jobId;
+        this.quarantine = quarantine;
+    }
+
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public boolean isQuarantine() { return quarantine; }
+    public void setQuarantine(boolean quarantine) { this.quarantine = quarantine; }
+
+    public int getTestCount() { return testCount; }
+    public void setTestCount(int testCount) { this.testCount = testCount; }
+
+    public long getStartMillis() { return startMillis; }
+    public void setStartMillis(long startMillis) { this.startMillis = startMillis; }
+
+    public long getEndMillis() { return endMillis; }
+    public void setEndMillis(long endMillis) { this.endMillis = endMillis; }
+
+    public long getBusyMillis() { return busyMillis; }
+    public void setBusyMillis(long busyMillis) { this.busyMillis = busyMillis; }
+
+    public boolean isCritical() { return critical; }
+    public void setCritical(boolean critical) { this.critical = critical; }
+}
@@ -0,0 +1,22 @@
+package com.regression.framework.models;
+
+import java.util.List;
+
+public class TestCaseResultPage {
+    private List<TestCaseResultResponse> results;
+    private String nextCursor; // null on the last page
+
+    public TestCaseResultPage() {}
+
+    public TestCaseResultPage(List<TestCaseResultResponse> results, String nextCursor) {
+        this.results = results;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<TestCaseResultResponse> getResults() { return results; }
+    public void setResults(List<TestCaseResultResponse> results) { this.results = results; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
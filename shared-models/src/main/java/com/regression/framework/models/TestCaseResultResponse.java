@@ -0,0 +1,75 @@
+package com.regression.framework.models;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class TestCaseResultResponse {
+    private Long id;
+    private String runId;
+    private String jobId;
+    private String testName;
+    private String status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long executionTime;
+    private String errorMessage;
+    private String screenshotPath;
+    private String screenshotHash;
+    private Long baselineMillis;       // rolling mean execution time before this result
+    private Double durationZScore;
+    private Boolean durationRegression;
+    private Boolean quarantined;       // ran in the quarantine job; did not gate the run
+    private Map<String, String> artifactRefs;
+
+    // No-args constructor
+    public TestCaseResultResponse() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public Long getExecutionTime() { return executionTime; }
+    public void setExecutionTime(Long executionTime) { this.executionTime = executionTime; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public String getScreenshotPath() { return screenshotPath; }
+    public void setScreenshotPath(String screenshotPath) { this.screenshotPath = screenshotPath; }
+
+    public String getScreenshotHash() { return screenshotHash; }
+    public void setScreenshotHash(String screenshotHash) { this.screenshotHash = screenshotHash; }
+
+    public Long getBaselineMillis() { return baselineMillis; }
+    public void setBaselineMillis(Long baselineMillis) { this.baselineMillis = baselineMillis; }
+
+    public Double getDurationZScore() { return durationZScore; }
+    public void setDurationZScore(Double durationZScore) { this.durationZScore = durationZScore; }
+
+    public Boolean getDurationRegression() { return durationRegression; }
+    public void setDurationRegression(Boolean durationRegression) { this.durationRegression = durationRegression; }
+
+    public Boolean getQuarantined() { return quarantined; }
+    public void setQuarantined(Boolean quarantined) { this.quarantined = quarantined; }
+
+    public Map<String, String> getArtifactRefs() { return artifactRefs; }
+    public void setArtifactRefs(Map<String, String> artifactRefs) { this.artifactRefs = artifactRefs; }
+}
@@ -11,6 +11,14 @@ public class TestExecutionJob {
     private LocalDateTime createdAt;
     private String status;
     private int retryCount = 0;
+    private int shardIndex = 0;
+    private int shardCount = 1;
+    private List<String> testNames;   // impact selection; null runs every matching test
+    private Map<String, Long> expectedDurations;   // historical ms for the tests the API packed onto this shard
+    private Map<String, Long> durationThresholds;  // ms above which a test is flagged as slower than its baseline
+    private List<String> placedElsewhere; // known tests that hash to this shard but were packed onto another
+    private List<String> excludedTests;   // quarantined tests; they run in the run's quarantine job instead
+    private boolean quarantine;           // runs only testNames, without retries; results never gate the run
     private List<TestResult> testResults;
 
     public TestExecutionJob() {
@@ -25,6 +33,12 @@ public class TestExecutionJob {
         this.testRunRequest = testRunRequest;
     }
 
+    // Where a test without duration history runs; String.hashCode is fixed by the spec, so the API and
+    // every worker agree on it
+    public static int hashShard(String testName, int shardCount) {
+        return Math.floorMod(testName.hashCode(), Math.max(1, shardCount));
+    }
+
     // Getters and Setters
     public String getJobId() { return jobId; }
     public void setJobId(String jobId) { this.jobId = jobId; }
@@ -46,6 +60,34 @@ public class TestExecutionJob {
     public int getRetryCount() { return retryCount; }
     public void setRetryCount(int retryCount) { this.retryCount = retryCount; }
 
+    public int getShardIndex() { return shardIndex; }
+    public void setShardIndex(int shardIndex) { this.shardIndex = shardIndex; }
+
+    public int getShardCount() { return shardCount; }
+    public void setShardCount(int shardCount) { this.shardCount = shardCount; }
+
+    public List<String> getTestNames() { return testNames; }
+    public void setTestNames(List<String> testNames) { this.testNames = testNames; }
+
+    public Map<String, Long> getExpectedDurations() { return expectedDurations; }
+    public void setExpectedDurations(Map<String, Long> expectedDurations) {
+        this.expectedDurations = expectedDurations;
+    }
+
+    public Map<String, Long> getDurationThresholds() { return durationThresholds; }
+    public void setDurationThresholds(Map<String, Long> durationThresholds) {
+        this.durationThresholds = durationThresholds;
+    }
+
+    public List<String> getPlacedElsewhere() { return placedElsewhere; }
+    public void setPlacedElsewhere(List<String> placedElsewhere) { this.placedElsewhere = placedElsewhere; }
+
+    public List<String> getExcludedTests() { return excludedTests; }
+    public void setExcludedTests(List<String> excludedTests) { this.excludedTests = excludedTests; }
+
+    public boolean isQuarantine() { return quarantine; }
+    public void setQuarantine(boolean quarantine) { this.quarantine = quarantine; }
+
     public List<TestResult> getTestResults() { return testResults; }
     public void setTestResults(List<TestResult> testResults) { this.testResults = testResults; }
 }
\ No newline at end of file
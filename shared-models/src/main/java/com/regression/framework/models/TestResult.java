@@ -1,6 +1,9 @@
 package com.regression.framework.models;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 public class TestResult {
     private String testName;
@@ -9,6 +12,7 @@ public class TestResult {
     private LocalDateTime endTime;
     private String errorMessage;
     private String screenshotPath;
+    private String screenshotHash;    // SHA-256 key in the worker's screenshot store
     // Add these fields:
     private String screenshotBase64;  // Store screenshot as base64 for DB
     private String failureType;       // "AssertionError", "Timeout", etc.
@@ -16,6 +20,10 @@ public class TestResult {
     private String networkLogs;       // Network requests during failure
     private String stackTrace;
     private Long executionTime; // in milliseconds
+    private Integer attempts;   // runs of this test including retries
+    private String lane;        // the job's lane slot the test held while it ran, e.g. lane-1
+    private Map<String, String> artifactRefs;   // offloaded field name -> artifact store key
+    private Set<String> components;             // components the test reached, e.g. checkout; feeds test impact
 
     public TestResult() {}
 
@@ -25,6 +33,27 @@ public class TestResult {
         this.startTime = LocalDateTime.now();
     }
 
+    // Shallow copy, so a message can drop large fields without touching the result used for reports
+    public TestResult(TestResult other) {
+        this.testName = other.testName;
+        this.status = other.status;
+        this.startTime = other.startTime;
+        this.endTime = other.endTime;
+        this.errorMessage = other.errorMessage;
+        this.screenshotPath = other.screenshotPath;
+        this.screenshotHash = other.screenshotHash;
+        this.screenshotBase64 = other.screenshotBase64;
+        this.failureType = other.failureType;
+        this.browserLogs = other.browserLogs;
+        this.networkLogs = other.networkLogs;
+        this.stackTrace = other.stackTrace;
+        this.executionTime = other.executionTime;
+        this.attempts = other.attempts;
+        this.lane = other.lane;
+        this.artifactRefs = other.artifactRefs != null ? new HashMap<>(other.artifactRefs) : null;
+        this.components = other.components;
+    }
+
     // Getters and Setters
     public String getTestName() { return testName; }
     public void setTestName(String testName) { this.testName = testName; }
@@ -44,9 +73,36 @@ public class TestResult {
     public String getScreenshotPath() { return screenshotPath; }
     public void setScreenshotPath(String screenshotPath) { this.screenshotPath = screenshotPath; }
 
+    public String getScreenshotHash() { return screenshotHash; }
+    public void setScreenshotHash(String screenshotHash) { this.screenshotHash = screenshotHash; }
+
     public String getStackTrace() { return stackTrace; }
     public void setStackTrace(String stackTrace) { this.stackTrace = stackTrace; }
 
     public Long getExecutionTime() { return executionTime; }
     public void setExecutionTime(Long executionTime) { this.executionTime = executionTime; }
-}
\ No newline at end of file
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getLane() { return lane; }
+    public void setLane(String lane) { this.lane = lane; }
+
+    public String getScreenshotBase64() { return screenshotBase64; }
+    public void setScreenshotBase64(String screenshotBase64) { this.screenshotBase64 = screenshotBase64; }
+
+    public String getFailureType() { return failureType; }
+    public void setFailureType(String failureType) { this.failureType = failureType; }
+
+    public String getBrowserLogs() { return browserLogs; }
+    public void setBrowserLogs(String browserLogs) { this.browserLogs = browserLogs; }
+
+    public String getNetworkLogs() { return networkLogs; }
+    public void setNetworkLogs(String networkLogs) { this.networkLogs = networkLogs; }
+
+    public Map<String, String> getArtifactRefs() { return artifactRefs; }
+    public void setArtifactRefs(Map<String, String> artifactRefs) { this.artifactRefs = artifactRefs; }
+
+    public Set<String> getComponents() { return components; }
+    public void setComponents(Set<String> components) { this.components = components; }
+}
@@ -0,0 +1,75 @@
+package com.regression.framework.models;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// A slice of one job's results; the last batch of a job carries complete = true
+public class TestResultBatch {
+    private String runId;
+    private String jobId;
+    private int shardIndex;
+    private int shardCount = 1;
+    private int sequence;
+    private List<TestResult> results = new ArrayList<>();
+    private boolean complete;
+    private String status;
+    private String reportUrl;
+    private int totalResults;
+    private LocalDateTime sentAt;
+    private String environment;
+    private boolean quarantine;
+
+    public TestResultBatch() {}
+
+    public TestResultBatch(TestExecutionJob job, int sequence) {
+        this.runId = job.getRunId();
+        this.jobId = job.getJobId();
+        this.shardIndex = job.getShardIndex();
+        this.shardCount = job.getShardCount();
+        this.sequence = sequence;
+        this.sentAt = LocalDateTime.now();
+        this.environment = job.getTestRunRequest() != null ? job.getTestRunRequest().getEnvironment() : null;
+        this.quarantine = job.isQuarantine();
+    }
+
+    // Getters and Setters
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public int getShardIndex() { return shardIndex; }
+    public void setShardIndex(int shardIndex) { this.shardIndex = shardIndex; }
+
+    public int getShardCount() { return shardCount; }
+    public void setShardCount(int shardCount) { this.shardCount = shardCount; }
+
+    public int getSequence() { return sequence; }
+    public void setSequence(int sequence) { this.sequence = sequence; }
+
+    public List<TestResult> getResults() { return results; }
+    public void setResults(List<TestResult> results) { this.results = results; }
+
+    public boolean isComplete() { return complete; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getReportUrl() { return reportUrl; }
+    public void setReportUrl(String reportUrl) { this.reportUrl = reportUrl; }
+
+    public int getTotalResults() { return totalResults; }
+    public void setTotalResults(int totalResults) { this.totalResults = totalResults; }
+
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+
+    public String getEnvironment() { return environment; }
+    public void setEnvironment(String environment) { this.environment = environment; }
+
+    public boolean isQuarantine() { return quarantine; }
+    public void setQuarantine(boolean quarantine) { this.quarantine = quarantine; }
+}
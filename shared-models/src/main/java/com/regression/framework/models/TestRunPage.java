@@ -0,0 +1,22 @@
+package com.regression.framework.models;
+
+import java.util.List;
+
+public class TestRunPage {
+    private List<TestRunResponse> runs;
+    private String nextCursor; // null on the last page
+
+    public TestRunPage() {}
+
+    public TestRunPage(List<TestRunResponse> runs, String nextCursor) {
+        this.runs = runs;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<TestRunResponse> getRuns() { return runs; }
+    public void setRuns(List<TestRunResponse> runs) { this.runs = runs; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
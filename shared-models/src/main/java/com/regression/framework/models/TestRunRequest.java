@@ -19,10 +19,45 @@ public class TestRunRequest {
     private Integer retryCount = 1;
     private String browserType = "chrome";
 
+    // Number of jobs the run is split into; each worker executes one slice
+    private Integer shardCount = 1;
+
+    // Components touched by the change under test; when set, only impacted tests are scheduled
+    private List<String> changedComponents;
+
+    // Abort the run once this many of its tests have failed, across all shards; null or 0 runs everything
+    private Integer failFastThreshold;
+
+    // API test limits for this run; null falls back to the worker defaults
+    private Integer apiConcurrencyPerTarget;
+    private Double apiRequestsPerSecond;
+
+    // Lane the run's jobs are queued on; interactive lanes never wait behind nightly batches
+    private Priority priority = Priority.PR;
+
+    // Flakiness is scored and quarantined per environment; null counts as "default"
+    private String environment;
+
     public enum ExecutionType {
         WEB, API, ALL
     }
 
+    // Lane queues are declared with a dead-letter exchange; the pre-lane test-execution-queue was declared
+    // without one and a queue's arguments can't change in place, so the PR lane uses a new name
+    public enum Priority {
+        SMOKE("test-execution-smoke"),
+        PR("test-execution-pr"),
+        NIGHTLY("test-execution-nightly");
+
+        private final String queueName;
+
+        Priority(String queueName) {
+            this.queueName = queueName;
+        }
+
+        public String getQueueName() { return queueName; }
+    }
+
     // Constructors
     public TestRunRequest() {}
 
@@ -55,4 +90,31 @@ public class TestRunRequest {
 
     public String getBrowserType() { return browserType; }
     public void setBrowserType(String browserType) { this.browserType = browserType; }
-}
\ No newline at end of file
+
+    public Integer getShardCount() { return shardCount; }
+    public void setShardCount(Integer shardCount) { this.shardCount = shardCount; }
+
+    public Integer getApiConcurrencyPerTarget() { return apiConcurrencyPerTarget; }
+    public void setApiConcurrencyPerTarget(Integer apiConcurrencyPerTarget) {
+        this.apiConcurrencyPerTarget = apiConcurrencyPerTarget;
+    }
+
+    public Double getApiRequestsPerSecond() { return apiRequestsPerSecond; }
+    public void setApiRequestsPerSecond(Double apiRequestsPerSecond) {
+        this.apiRequestsPerSecond = apiRequestsPerSecond;
+    }
+
+    public List<String> getChangedComponents() { return changedComponents; }
+    public void setChangedComponents(List<String> changedComponents) {
+        this.changedComponents = changedComponents;
+    }
+
+    public Integer getFailFastThreshold() { return failFastThreshold; }
+    public void setFailFastThreshold(Integer failFastThreshold) { this.failFastThreshold = failFastThreshold; }
+
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { this.priority = priority; }
+
+    public String getEnvironment() { return environment; }
+    public void setEnvironment(String environment) { this.environment = environment; }
+}
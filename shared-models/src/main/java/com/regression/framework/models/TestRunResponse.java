@@ -1,6 +1,9 @@
 package com.regression.framework.models;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 @SuppressWarnings("unused")
 public class TestRunResponse {
     private String runId;
@@ -8,10 +11,12 @@ public class TestRunResponse {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private String message;
-    private String reportUrl;
+    private String reportUrl;           // the run's report when a single job produced one
+    private Map<String, String> reportUrls;     // job ID -> report; single-run lookups only
     private Integer totalTests;
     private Integer passedTests;
     private Integer failedTests;
+    private List<TestCaseResultResponse> durationRegressions;   // single-run lookups only
 
     // No-args constructor
     public TestRunResponse() {}
@@ -58,6 +63,9 @@ public class TestRunResponse {
     public String getReportUrl() { return reportUrl; }
     public void setReportUrl(String reportUrl) { this.reportUrl = reportUrl; }
 
+    public Map<String, String> getReportUrls() { return reportUrls; }
+    public void setReportUrls(Map<String, String> reportUrls) { this.reportUrls = reportUrls; }
+
     public Integer getTotalTests() { return totalTests; }
     public void setTotalTests(Integer totalTests) { this.totalTests = totalTests; }
 
@@ -66,4 +74,9 @@ public class TestRunResponse {
 
     public Integer getFailedTests() { return failedTests; }
     public void setFailedTests(Integer failedTests) { this.failedTests = failedTests; }
+
+    public List<TestCaseResultResponse> getDurationRegressions() { return durationRegressions; }
+    public void setDurationRegressions(List<TestCaseResultResponse> durationRegressions) {
+        this.durationRegressions = durationRegressions;
+    }
 }
\ No newline at end of file
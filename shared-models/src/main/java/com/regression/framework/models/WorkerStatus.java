@@ -0,0 +1,45 @@
+package com.regression.framework.models;
+
+import java.time.LocalDateTime;
+
+public class WorkerStatus {
+    private String workerId;
+    private int maxConcurrentJobs;
+    private int activeJobs;
+    private int browserPoolSize;
+    private int freeBrowserSlots;
+    private LocalDateTime reportedAt;
+
+    public WorkerStatus() {
+        this.reportedAt = LocalDateTime.now();
+    }
+
+    public WorkerStatus(String workerId, int maxConcurrentJobs, int activeJobs,
+                        int browserPoolSize, int freeBrowserSlots) {
+        this();
+        this.workerId = workerId;
+        this.maxConcurrentJobs = maxConcurrentJobs;
+        this.activeJobs = activeJobs;
+        this.browserPoolSize = browserPoolSize;
+        this.freeBrowserSlots = freeBrowserSlots;
+    }
+
+    // Getters and Setters
+    public String getWorkerId() { return workerId; }
+    public void setWorkerId(String workerId) { this.workerId = workerId; }
+
+    public int getMaxConcurrentJobs() { return maxConcurrentJobs; }
+    public void setMaxConcurrentJobs(int maxConcurrentJobs) { this.maxConcurrentJobs = maxConcurrentJobs; }
+
+    public int getActiveJobs() { return activeJobs; }
+    public void setActiveJobs(int activeJobs) { this.activeJobs = activeJobs; }
+
+    public int getBrowserPoolSize() { return browserPoolSize; }
+    public void setBrowserPoolSize(int browserPoolSize) { this.browserPoolSize = browserPoolSize; }
+
+    public int getFreeBrowserSlots() { return freeBrowserSlots; }
+    public void setFreeBrowserSlots(int freeBrowserSlots) { this.freeBrowserSlots = freeBrowserSlots; }
+
+    public LocalDateTime getReportedAt() { return reportedAt; }
+    public void setReportedAt(LocalDateTime reportedAt) { this.reportedAt = reportedAt; }
+}
@@ -1,21 +1,81 @@
 package com.regression.framework.api.config;
 
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.regression.framework.messaging.ThresholdGZipPostProcessor;
+import com.regression.framework.messaging.WireFormats;
+import com.regression.framework.models.TestRunRequest;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
 
 @Configuration
 public class RabbitMQConfig {
 
+    @Value("${messaging.wire-format:json}")
+    private String wireFormat;
+
+    @Value("${messaging.compression-threshold-bytes:16384}")
+    private int compressionThresholdBytes;
+
+    // Publishes and deliveries become spans; the trace context travels in the AMQP headers
+    @Value("${messaging.observation-enabled:true}")
+    private boolean observationEnabled;
+
+    // One queue per TestRunRequest.Priority lane. Rejected (poison) jobs are dead-lettered to
+    // test-execution-dlq for inspection.
     @Bean
     public Queue testExecutionQueue() {
-        return new Queue("test-execution-queue", true);
+        return laneQueue(TestRunRequest.Priority.PR);
+    }
+
+    @Bean
+    public Queue smokeExecutionQueue() {
+        return laneQueue(TestRunRequest.Priority.SMOKE);
+    }
+
+    @Bean
+    public Queue nightlyExecutionQueue() {
+        return laneQueue(TestRunRequest.Priority.NIGHTLY);
+    }
+
+    private static Queue laneQueue(TestRunRequest.Priority priority) {
+        return QueueBuilder.durable(priority.getQueueName())
+                .deadLetterExchange("test-execution-dlx")
+                .build();
+    }
+
+    @Bean
+    public DirectExchange testExecutionDeadLetterExchange() {
+        return new DirectExchange("test-execution-dlx");
+    }
+
+    @Bean
+    public Queue testExecutionDeadLetterQueue() {
+        return QueueBuilder.durable("test-execution-dlq").build();
+    }
+
+    @Bean
+    public Declarables testExecutionDeadLetterBindings() {
+        return new Declarables(Arrays.stream(TestRunRequest.Priority.values())
+                .map(priority -> BindingBuilder.bind(testExecutionDeadLetterQueue())
+                        .to(testExecutionDeadLetterExchange())
+                        .with(priority.getQueueName()))
+                .collect(Collectors.toList()));
     }
 
     @Bean
@@ -24,16 +84,40 @@ public class RabbitMQConfig {
     }
 
     @Bean
-    public Jackson2JsonMessageConverter jsonMessageConverter() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule()); // Add this line
-        return new Jackson2JsonMessageConverter(objectMapper);
+    public Queue workerStatusQueue() {
+        return QueueBuilder.nonDurable("worker-status-queue").ttl(30000).build();
+    }
+
+    // Workers bind their own anonymous queues to this exchange
+    @Bean
+    public FanoutExchange runCancellationExchange() {
+        return new FanoutExchange("test-run-cancellations");
+    }
+
+    // Reads JSON or Smile by content type; writes messaging.wire-format. Switch writers to smile only
+    // after every consumer runs a build that can read it.
+    @Bean
+    public MessageConverter messageConverter() {
+        return WireFormats.messageConverter(wireFormat);
     }
 
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(messageConverter());
+        rabbitTemplate.setBeforePublishPostProcessors(new ThresholdGZipPostProcessor(compressionThresholdBytes));
+        rabbitTemplate.setObservationEnabled(observationEnabled);
         return rabbitTemplate;
     }
-}
\ No newline at end of file
+
+    // Boot's listener settings plus transparent decompression of gzipped payloads
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAfterReceivePostProcessors(new DelegatingDecompressingPostProcessor());
+        factory.setObservationEnabled(observationEnabled);
+        return factory;
+    }
+}
@@ -0,0 +1,24 @@
+package com.regression.framework.api.controller;
+
+import com.regression.framework.api.service.ArtifactService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/artifacts")
+@CrossOrigin(origins = "*")
+public class ArtifactController {
+
+    @Autowired
+    private ArtifactService artifactService;
+
+    @GetMapping("/{hash}")
+    public ResponseEntity<String> getArtifact(@PathVariable String hash) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(artifactService.getArtifact(hash));
+    }
+}
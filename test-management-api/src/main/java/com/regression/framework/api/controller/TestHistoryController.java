@@ -0,0 +1,44 @@
+package com.regression.framework.api.controller;
+
+import com.regression.framework.models.FlakyTestResponse;
+import com.regression.framework.models.TestCaseResultResponse;
+import com.regression.framework.api.service.TestFlakinessService;
+import com.regression.framework.api.service.TestRunService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tests")
+@CrossOrigin(origins = "*")
+public class TestHistoryController {
+
+    @Autowired
+    private TestRunService testRunService;
+
+    @Autowired
+    private TestFlakinessService testFlakinessService;
+
+    // Flakiest first; omit environment to list every environment
+    @GetMapping("/flaky")
+    public ResponseEntity<List<FlakyTestResponse>> getFlakyTests(
+            @RequestParam(required = false) String environment,
+            @RequestParam(defaultValue = "0.0") double minScore,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        return ResponseEntity.ok(testFlakinessService.getFlakyTests(environment, minScore, limit));
+    }
+
+    @GetMapping("/{testName}/failures")
+    public ResponseEntity<List<TestCaseResultResponse>> getRecentFailures(
+            @PathVariable String testName,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        List<TestCaseResultResponse> responses = testRunService.getRecentFailures(testName, days, limit);
+        return ResponseEntity.ok(responses);
+    }
+}
@@ -1,5 +1,9 @@
 package com.regression.framework.api.controller;
 
+import com.regression.framework.models.RunTimelineResponse;
+import com.regression.framework.models.TestCaseResultPage;
+import com.regression.framework.models.TestCaseResultResponse;
+import com.regression.framework.models.TestRunPage;
 import com.regression.framework.models.TestRunRequest;
 import com.regression.framework.models.TestRunResponse;
 import com.regression.framework.api.service.TestRunService;
@@ -16,6 +20,8 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class TestRunController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private TestRunService testRunService;
 
@@ -33,21 +39,68 @@ public class TestRunController {
         return ResponseEntity.ok(response);
     }
 
+    // One keyset page of a run's results; the X-Next-Cursor header continues it
+    @GetMapping("/{runId}/results")
+    public ResponseEntity<List<TestCaseResultResponse>> getTestCaseResults(
+            @PathVariable String runId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "200") int size) {
+        TestCaseResultPage page = testRunService.getTestCaseResultsPage(runId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getResults());
+    }
+
+    // Per-shard spans across the whole run, plus the longest tests on the shard that finished last
+    @GetMapping("/{runId}/timeline")
+    public ResponseEntity<RunTimelineResponse> getRunTimeline(
+            @PathVariable String runId,
+            @RequestParam(defaultValue = "10") int longest) {
+        return ResponseEntity.ok(testRunService.getRunTimeline(runId, longest));
+    }
+
     @PostMapping("/{runId}/stop")
     public ResponseEntity<TestRunResponse> stopTestRun(@PathVariable String runId) {
         TestRunResponse response = testRunService.stopTestRun(runId);
         return ResponseEntity.ok(response);
     }
 
+    // Newest runs first, one keyset page; the X-Next-Cursor header continues on /page
     @GetMapping
-    public ResponseEntity<List<TestRunResponse>> getAllTestRuns() {
-        List<TestRunResponse> responses = testRunService.getAllTestRuns();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<TestRunResponse>> getAllTestRuns(
+            @RequestParam(defaultValue = "50") int size) {
+        return toListResponse(testRunService.getTestRunsPage(null, null, size));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<TestRunPage> getTestRunsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(testRunService.getTestRunsPage(null, cursor, size));
+    }
+
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<TestRunPage> getTestRunsByStatusPage(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(testRunService.getTestRunsPage(status, cursor, size));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TestRunResponse>> getTestRunsByStatus(@PathVariable String status) {
-        List<TestRunResponse> responses = testRunService.getTestRunsByStatus(status);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<TestRunResponse>> getTestRunsByStatus(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "50") int size) {
+        return toListResponse(testRunService.getTestRunsPage(status, null, size));
+    }
+
+    private static ResponseEntity<List<TestRunResponse>> toListResponse(TestRunPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getRuns());
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.regression.framework.api.controller;
+
+import com.regression.framework.api.service.WorkerRegistryService;
+import com.regression.framework.models.WorkerStatus;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/workers")
+@CrossOrigin(origins = "*")
+public class WorkerController {
+
+    @Autowired
+    private WorkerRegistryService workerRegistryService;
+
+    @GetMapping
+    public ResponseEntity<List<WorkerStatus>> getWorkers() {
+        return ResponseEntity.ok(workerRegistryService.getActiveWorkers());
+    }
+}
@@ -0,0 +1,108 @@
+package com.regression.framework.api.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "test_case_results", indexes = {
+        @Index(name = "idx_case_results_run_id", columnList = "runId, id"),
+        @Index(name = "idx_case_results_name_time", columnList = "testName, startTime"),
+        @Index(name = "idx_case_results_status_time", columnList = "status, startTime")
+})
+public class TestCaseResultEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String runId;
+
+    private String jobId;
+
+    @Column(nullable = false)
+    private String testName;
+
+    private String status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long executionTime;
+
+    @Column(length = 2000)
+    private String errorMessage;
+
+    @Column(length = 500)
+    private String screenshotPath;
+
+    @Column(length = 64)
+    private String screenshotHash;
+
+    @Lob
+    private String stackTrace;
+
+    // Duration check against the test's baseline at the time this result arrived; null while history is short
+    private Long baselineMillis;
+    private Double durationZScore;
+    private Boolean durationRegression;
+
+    // Ran in the run's quarantine job; counted for flakiness but never for the run's status
+    private Boolean quarantined;
+
+    // Offloaded fields as "field=sha256,..."; the content is served by /api/artifacts/{hash}
+    @Column(length = 1000)
+    private String artifactRefs;
+
+    // No-args constructor
+    public TestCaseResultEntity() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+
+    public Long getExecutionTime() { return executionTime; }
+    public void setExecutionTime(Long executionTime) { this.executionTime = executionTime; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public String getScreenshotPath() { return screenshotPath; }
+    public void setScreenshotPath(String screenshotPath) { this.screenshotPath = screenshotPath; }
+
+    public String getScreenshotHash() { return screenshotHash; }
+    public void setScreenshotHash(String screenshotHash) { this.screenshotHash = screenshotHash; }
+
+    public String getStackTrace() { return stackTrace; }
+    public void setStackTrace(String stackTrace) { this.stackTrace = stackTrace; }
+
+    public Long getBaselineMillis() { return baselineMillis; }
+    public void setBaselineMillis(Long baselineMillis) { this.baselineMillis = baselineMillis; }
+
+    public Double getDurationZScore() { return durationZScore; }
+    public void setDurationZScore(Double durationZScore) { this.durationZScore = durationZScore; }
+
+    public Boolean getDurationRegression() { return durationRegression; }
+    public void setDurationRegression(Boolean durationRegression) { this.durationRegression = durationRegression; }
+
+    public Boolean getQuarantined() { return quarantined; }
+    public void setQuarantined(Boolean quarantined) { this.quarantined = quarantined; }
+
+    public String getArtifactRefs() { return artifactRefs; }
+    public void setArtifactRefs(String artifactRefs) { this.artifactRefs = artifactRefs; }
+}
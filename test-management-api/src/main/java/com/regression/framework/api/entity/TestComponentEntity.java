@@ -0,0 +1,43 @@
+package com.regression.framework.api.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One row per (test, component) pair seen together in a run; drives test-impact selection
+@Entity
+@Table(name = "test_components",
+        uniqueConstraints = @UniqueConstraint(name = "uk_test_components", columnNames = {"testName", "component"}),
+        indexes = @Index(name = "idx_test_components_component", columnList = "component, lastSeen"))
+public class TestComponentEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String testName;
+
+    @Column(nullable = false)
+    private String component;
+
+    private Integer runCount;
+    private LocalDateTime lastSeen;
+
+    // No-args constructor
+    public TestComponentEntity() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+
+    public String getComponent() { return component; }
+    public void setComponent(String component) { this.component = component; }
+
+    public Integer getRunCount() { return runCount; }
+    public void setRunCount(Integer runCount) { this.runCount = runCount; }
+
+    public LocalDateTime getLastSeen() { return lastSeen; }
+    public void setLastSeen(LocalDateTime lastSeen) { this.lastSeen = lastSeen; }
+}
@@ -0,0 +1,36 @@
+package com.regression.framework.api.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Rolling (exponentially weighted) execution time per test: shard balancing and duration regression baseline
+@Entity
+@Table(name = "test_durations")
+public class TestDurationEntity {
+    @Id
+    private String testName;
+
+    private Double ewmaMillis;
+    private Double ewmaVariance;
+    private Integer samples;
+    private LocalDateTime lastUpdated;
+
+    // No-args constructor
+    public TestDurationEntity() {}
+
+    // Getters and Setters
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+
+    public Double getEwmaMillis() { return ewmaMillis; }
+    public void setEwmaMillis(Double ewmaMillis) { this.ewmaMillis = ewmaMillis; }
+
+    public Double getEwmaVariance() { return ewmaVariance; }
+    public void setEwmaVariance(Double ewmaVariance) { this.ewmaVariance = ewmaVariance; }
+
+    public Integer getSamples() { return samples; }
+    public void setSamples(Integer samples) { this.samples = samples; }
+
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+}
@@ -0,0 +1,55 @@
+package com.regression.framework.api.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Pass/fail flip rate per (test, environment), updated incrementally as results stream in
+@Entity
+@Table(name = "test_flakiness",
+        uniqueConstraints = @UniqueConstraint(name = "uk_test_flakiness", columnNames = {"testName", "environment"}),
+        indexes = @Index(name = "idx_test_flakiness_env_quarantined", columnList = "environment, quarantined"))
+public class TestFlakinessEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String testName;
+
+    @Column(nullable = false)
+    private String environment;
+
+    private Double flipScore;
+    private String lastStatus;
+    private Integer samples;
+    private Boolean quarantined;
+    private LocalDateTime lastUpdated;
+
+    // No-args constructor
+    public TestFlakinessEntity() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTestName() { return testName; }
+    public void setTestName(String testName) { this.testName = testName; }
+
+    public String getEnvironment() { return environment; }
+    public void setEnvironment(String environment) { this.environment = environment; }
+
+    public Double getFlipScore() { return flipScore; }
+    public void setFlipScore(Double flipScore) { this.flipScore = flipScore; }
+
+    public String getLastStatus() { return lastStatus; }
+    public void setLastStatus(String lastStatus) { this.lastStatus = lastStatus; }
+
+    public Integer getSamples() { return samples; }
+    public void setSamples(Integer samples) { this.samples = samples; }
+
+    public Boolean getQuarantined() { return quarantined; }
+    public void setQuarantined(Boolean quarantined) { this.quarantined = quarantined; }
+
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+}
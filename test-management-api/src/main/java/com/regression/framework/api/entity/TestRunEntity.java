@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "test_runs")
+@Table(name = "test_runs", indexes = {
+        @Index(name = "idx_test_runs_start", columnList = "startTime, runId"),
+        @Index(name = "idx_test_runs_status_start", columnList = "status, startTime, runId")
+})
 public class TestRunEntity {
     @Id
     private String runId;
@@ -13,11 +16,18 @@ public class TestRunEntity {
     private String status;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
-    private String reportUrl;
     private Integer totalTests;
     private Integer passedTests;
     private Integer failedTests;
 
+    // Sharded runs complete once every shard job has reported back
+    private Integer shardCount;
+    private Integer completedShards;
+    private Integer failedShards;
+
+    // The run is aborted once this many of its tests have failed, counted over all shards
+    private Integer failFastThreshold;
+
     @Column(length = 1000)
     private String tags;
 
@@ -57,8 +67,6 @@ public class TestRunEntity {
     public LocalDateTime getEndTime() { return endTime; }
     public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
 
-    public String getReportUrl() { return reportUrl; }
-    public void setReportUrl(String reportUrl) { this.reportUrl = reportUrl; }
 
     public Integer getTotalTests() { return totalTests; }
     public void setTotalTests(Integer totalTests) { this.totalTests = totalTests; }
@@ -69,6 +77,18 @@ public class TestRunEntity {
     public Integer getFailedTests() { return failedTests; }
     public void setFailedTests(Integer failedTests) { this.failedTests = failedTests; }
 
+    public Integer getShardCount() { return shardCount; }
+    public void setShardCount(Integer shardCount) { this.shardCount = shardCount; }
+
+    public Integer getCompletedShards() { return completedShards; }
+    public void setCompletedShards(Integer completedShards) { this.completedShards = completedShards; }
+
+    public Integer getFailedShards() { return failedShards; }
+    public void setFailedShards(Integer failedShards) { this.failedShards = failedShards; }
+
+    public Integer getFailFastThreshold() { return failFastThreshold; }
+    public void setFailFastThreshold(Integer failFastThreshold) { this.failFastThreshold = failFastThreshold; }
+
     public String getTags() { return tags; }
     public void setTags(String tags) { this.tags = tags; }
 
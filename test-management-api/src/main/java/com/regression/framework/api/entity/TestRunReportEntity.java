@@ -0,0 +1,44 @@
+package com.regression.framework.api.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One report per shard job of a run; a job that reports again replaces its own link only
+@Entity
+@Table(name = "test_run_reports",
+        uniqueConstraints = @UniqueConstraint(name = "uk_test_run_reports", columnNames = {"runId", "jobId"}))
+public class TestRunReportEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String runId;
+
+    @Column(nullable = false)
+    private String jobId;
+
+    @Column(length = 1000)
+    private String reportUrl;
+
+    private LocalDateTime createdAt;
+
+    // No-args constructor
+    public TestRunReportEntity() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getReportUrl() { return reportUrl; }
+    public void setReportUrl(String reportUrl) { this.reportUrl = reportUrl; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -1,8 +1,8 @@
 package com.regression.framework.api.listener;
 
-import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestResultBatch;
 import com.regression.framework.api.service.TestRunService;
-import com.regression.framework.models.TestResult; // 🔽 ADDED THIS IMPORT
+import com.regression.framework.models.TestResult;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -17,66 +17,67 @@ public class TestResultsListener {
     @Autowired
     private TestRunService testRunService;
 
+    // Workers stream results in small batches; each one is applied to the run as it arrives
     @RabbitListener(queues = "test-results-queue")
-    public void receiveTestResults(TestExecutionJob job) {
-        logger.info("Received test results for run: {}", job.getRunId());
+    public void receiveTestResults(TestResultBatch batch) {
+        logger.info("Received result batch {} for run: {} (shard {}/{}, {} result(s), complete={})",
+                batch.getSequence(), batch.getRunId(), batch.getShardIndex() + 1, batch.getShardCount(),
+                batch.getResults() != null ? batch.getResults().size() : 0, batch.isComplete());
 
         try {
-            // Calculate test statistics
+            // Calculate test statistics for this batch
             int totalTests = 0;
             int passedTests = 0;
             int failedTests = 0;
 
-            // 👇 COLLECT SCREENSHOT PATHS AND FAILURE DETAILS
             StringBuilder screenshotPaths = new StringBuilder();
             StringBuilder failureDetails = new StringBuilder();
 
-            if (job.getTestResults() != null) {
-                totalTests = job.getTestResults().size();
+            if (batch.getResults() != null) {
+                totalTests = batch.getResults().size();
 
-                // 🔽 REPLACE THE STREAM CODE WITH THIS LOOP:
-                for (TestResult result : job.getTestResults()) {
+                for (TestResult result : batch.getResults()) {
                     if ("PASSED".equals(result.getStatus())) {
                         passedTests++;
                     } else if ("FAILED".equals(result.getStatus())) {
                         failedTests++;
 
-                        // 👇 COLLECT SCREENSHOT PATHS FOR FAILED TESTS
-                        if (result.getScreenshotPath() != null) {
+                        // Screenshots are referenced by their content hash in the worker's store
+                        if (result.getScreenshotHash() != null) {
+                            screenshotPaths.append(result.getScreenshotHash()).append(",");
+                        } else if (result.getScreenshotPath() != null) {
                             screenshotPaths.append(result.getScreenshotPath()).append(",");
                         }
 
-                        // 👇 COLLECT FAILURE DETAILS
                         failureDetails.append(result.getTestName())
                                 .append(": ")
                                 .append(result.getErrorMessage())
                                 .append("; ");
                     }
                 }
-                // 🔼 END OF REPLACEMENT
             }
 
-            String reportUrl = "/reports/" + job.getRunId() + ".html";
-            // 🔽 ADD DEBUG LOGGING HERE:
-            logger.info("DEBUG - Total tests: {}", totalTests);
-            logger.info("DEBUG - Failed tests: {}", failedTests);
-            logger.info("DEBUG - Screenshot paths collected: {}", screenshotPaths.toString());
-            logger.info("DEBUG - Failure details collected: {}", failureDetails.toString());
+            // Workers send the report location in a follow-up batch once the files are written;
+            // every shard job, the quarantine job included, links its own report
+            String reportUrl = batch.getReportUrl();
 
-            // 🔽 ADD THESE NEW DEBUG LINES:
-            logger.info("DEBUG - Calling TestRunService.updateTestRunStatus");
-            logger.info("DEBUG - Run ID: {}", job.getRunId());
-            logger.info("DEBUG - Screenshot paths to save: {}", screenshotPaths.toString());
-
-            testRunService.updateTestRunStatus(job.getRunId(), job.getStatus(),
-                    reportUrl, totalTests, passedTests, failedTests,
-                    screenshotPaths.toString(), failureDetails.toString());
+            // Quarantine-job results only feed flakiness and per-test history, never the run's counters or status
+            if (batch.isQuarantine()) {
+                testRunService.applyResultBatch(batch.getRunId(), batch.getJobId(), batch.getResults(),
+                        0, 0, 0, null, null, false, null, reportUrl, batch.getEnvironment(), true);
+                return;
+            }
 
-            logger.info("DEBUG - After calling TestRunService.updateTestRunStatus");
+            testRunService.applyResultBatch(batch.getRunId(), batch.getJobId(), batch.getResults(),
+                    totalTests, passedTests, failedTests,
+                    screenshotPaths.toString(), failureDetails.toString(),
+                    batch.isComplete(), batch.getStatus(), reportUrl, batch.getEnvironment(), false);
 
-            logger.info("Updated test run status for: {}", job.getRunId());
+            if (reportUrl != null) {
+                logger.info("Report ready for job {} of run {}: {}", batch.getJobId(), batch.getRunId(), reportUrl);
+            }
         } catch (Exception e) {
-            logger.error("Failed to process test results for run: {}", job.getRunId(), e);
+            logger.error("Failed to process result batch {} for run: {}", batch.getSequence(), batch.getRunId(), e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.regression.framework.api.listener;
+
+import com.regression.framework.api.service.WorkerRegistryService;
+import com.regression.framework.models.WorkerStatus;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WorkerStatusListener {
+
+    @Autowired
+    private WorkerRegistryService workerRegistryService;
+
+    @RabbitListener(queues = "worker-status-queue")
+    public void receiveWorkerStatus(WorkerStatus status) {
+        workerRegistryService.update(status);
+    }
+}
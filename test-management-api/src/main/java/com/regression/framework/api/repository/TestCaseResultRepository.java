@@ -0,0 +1,34 @@
+package com.regression.framework.api.repository;
+
+import com.regression.framework.api.entity.TestCaseResultEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TestCaseResultRepository extends JpaRepository<TestCaseResultEntity, Long> {
+    // Keyset pages of a run in insertion order; the cursor is the last id of the previous page.
+    // Served by idx_case_results_run_id
+    List<TestCaseResultSummary> findByRunIdOrderByIdAsc(String runId, Pageable pageable);
+
+    List<TestCaseResultSummary> findByRunIdAndIdGreaterThanOrderByIdAsc(String runId, Long id, Pageable pageable);
+
+    // Served by idx_case_results_run_id
+    List<TestCaseTiming> findTimingByRunId(String runId);
+
+    // Served by idx_case_results_run_id
+    List<TestCaseResultSummary> findByRunIdAndDurationRegressionTrueOrderByDurationZScoreDesc(String runId);
+
+    // Served by idx_case_results_name_time
+    List<TestCaseResultSummary> findByTestNameAndStatusAndStartTimeAfterOrderByStartTimeDesc(
+            String testName, String status, LocalDateTime since, Pageable pageable);
+
+    // Served by idx_case_results_status_time
+    @Query("select distinct r.testName from TestCaseResultEntity r where r.status = 'FAILED' and r.startTime >= :since")
+    List<String> findFailedTestNamesSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,23 @@
+package com.regression.framework.api.repository;
+
+import java.time.LocalDateTime;
+
+// Closed projection of test_case_results for list views; leaves out the stack_trace LOB
+public interface TestCaseResultSummary {
+    Long getId();
+    String getRunId();
+    String getJobId();
+    String getTestName();
+    String getStatus();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    Long getExecutionTime();
+    String getErrorMessage();
+    String getScreenshotPath();
+    String getScreenshotHash();
+    Long getBaselineMillis();
+    Double getDurationZScore();
+    Boolean getDurationRegression();
+    Boolean getQuarantined();
+    String getArtifactRefs();
+}
@@ -0,0 +1,14 @@
+package com.regression.framework.api.repository;
+
+import java.time.LocalDateTime;
+
+// Closed projection of test_case_results with just what the run timeline needs
+public interface TestCaseTiming {
+    String getJobId();
+    String getTestName();
+    String getStatus();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    Long getExecutionTime();
+    Boolean getQuarantined();
+}
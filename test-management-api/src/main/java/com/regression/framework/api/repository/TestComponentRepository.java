@@ -0,0 +1,21 @@
+package com.regression.framework.api.repository;
+
+import com.regression.framework.api.entity.TestComponentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TestComponentRepository extends JpaRepository<TestComponentEntity, Long> {
+
+    // Served by idx_test_components_component
+    @Query("select distinct c.testName from TestComponentEntity c "
+            + "where c.component in :components and c.lastSeen >= :since")
+    List<String> findTestNamesByComponents(@Param("components") Collection<String> components,
+                                           @Param("since") LocalDateTime since);
+}
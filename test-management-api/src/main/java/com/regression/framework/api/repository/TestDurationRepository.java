@@ -0,0 +1,16 @@
+package com.regression.framework.api.repository;
+
+import com.regression.framework.api.entity.TestDurationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TestDurationRepository extends JpaRepository<TestDurationEntity, String> {
+    List<TestDurationEntity> findByTestNameIn(Collection<String> testNames);
+
+    List<TestDurationEntity> findByLastUpdatedAfter(LocalDateTime since);
+}
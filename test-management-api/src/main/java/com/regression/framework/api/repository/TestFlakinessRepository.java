@@ -0,0 +1,23 @@
+package com.regression.framework.api.repository;
+
+import com.regression.framework.api.entity.TestFlakinessEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TestFlakinessRepository extends JpaRepository<TestFlakinessEntity, Long> {
+
+    // Served by idx_test_flakiness_env_quarantined
+    @Query("select f.testName from TestFlakinessEntity f where f.environment = :environment and f.quarantined = true")
+    List<String> findQuarantinedTestNames(@Param("environment") String environment);
+
+    List<TestFlakinessEntity> findByFlipScoreGreaterThanEqualOrderByFlipScoreDesc(double minScore, Pageable pageable);
+
+    List<TestFlakinessEntity> findByEnvironmentAndFlipScoreGreaterThanEqualOrderByFlipScoreDesc(
+            String environment, double minScore, Pageable pageable);
+}
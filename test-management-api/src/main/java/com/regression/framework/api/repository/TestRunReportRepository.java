@@ -0,0 +1,13 @@
+package com.regression.framework.api.repository;
+
+import com.regression.framework.api.entity.TestRunReportEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TestRunReportRepository extends JpaRepository<TestRunReportEntity, Long> {
+    // Served by uk_test_run_reports
+    List<TestRunReportEntity> findByRunIdOrderByJobIdAsc(String runId);
+}
@@ -1,13 +1,45 @@
 package com.regression.framework.api.repository;
 
 import com.regression.framework.api.entity.TestRunEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TestRunRepository extends JpaRepository<TestRunEntity, String> {
-    List<TestRunEntity> findByStatusOrderByStartTimeDesc(String status);
-    List<TestRunEntity> findAllByOrderByStartTimeDesc();
+    // Keyset pages ordered by (startTime, runId) descending; the cursor is the last row of the previous page
+    String SUMMARY_COLUMNS = "select r.runId as runId, r.testSuiteName as testSuiteName, r.status as status, "
+            + "r.startTime as startTime, r.endTime as endTime, "
+            + "r.totalTests as totalTests, r.passedTests as passedTests, r.failedTests as failedTests "
+            + "from TestRunEntity r ";
+    String KEYSET_ORDER = " order by r.startTime desc, r.runId desc";
+    String AFTER_CURSOR = "(r.startTime < :startTime or (r.startTime = :startTime and r.runId < :runId))";
+
+    @Query(SUMMARY_COLUMNS + KEYSET_ORDER)
+    List<TestRunSummary> findFirstPage(Pageable pageable);
+
+    @Query(SUMMARY_COLUMNS + "where " + AFTER_CURSOR + KEYSET_ORDER)
+    List<TestRunSummary> findPageAfter(@Param("startTime") LocalDateTime startTime,
+                                       @Param("runId") String runId, Pageable pageable);
+
+    @Query(SUMMARY_COLUMNS + "where r.status = :status" + KEYSET_ORDER)
+    List<TestRunSummary> findFirstPageByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query(SUMMARY_COLUMNS + "where r.status = :status and " + AFTER_CURSOR + KEYSET_ORDER)
+    List<TestRunSummary> findPageByStatusAfter(@Param("status") String status,
+                                               @Param("startTime") LocalDateTime startTime,
+                                               @Param("runId") String runId, Pageable pageable);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update TestRunEntity r set r.status = :status, r.endTime = :endTime where r.runId = :runId")
+    int updateStatus(@Param("runId") String runId, @Param("status") String status,
+                     @Param("endTime") LocalDateTime endTime);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.regression.framework.api.repository;
+
+import java.time.LocalDateTime;
+
+// Closed projection of test_runs without the large text columns
+public interface TestRunSummary {
+    String getRunId();
+    String getTestSuiteName();
+    String getStatus();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    Integer getTotalTests();
+    Integer getPassedTests();
+    Integer getFailedTests();
+}
@@ -0,0 +1,80 @@
+package com.regression.framework.api.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+// Reads claim-check artifacts the workers wrote to the shared store; only fetched when a failure is opened
+@Service
+public class ArtifactService {
+
+    private static final Pattern ARTIFACT_KEY = Pattern.compile("[0-9a-f]{64}");
+
+    @Value("${artifacts.dir:../artifacts}")
+    private String rootDir;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() {
+        root = Paths.get(rootDir);
+    }
+
+    public String getArtifact(String hash) {
+        if (hash == null || !ARTIFACT_KEY.matcher(hash).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid artifact key: " + hash);
+        }
+
+        Path file = root.resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Artifact not found or evicted: " + hash);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to read artifact " + hash, e);
+        }
+    }
+
+    // Stored as "field=hash,field=hash" in test_case_results.artifact_refs
+    static String formatRefs(Map<String, String> refs) {
+        if (refs == null || refs.isEmpty()) {
+            return null;
+        }
+        StringBuilder formatted = new StringBuilder();
+        refs.forEach((field, hash) -> {
+            if (formatted.length() > 0) {
+                formatted.append(',');
+            }
+            formatted.append(field).append('=').append(hash);
+        });
+        return formatted.toString();
+    }
+
+    static Map<String, String> parseRefs(String refs) {
+        if (refs == null || refs.isBlank()) {
+            return null;
+        }
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String entry : refs.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                parsed.put(entry.substring(0, separator), entry.substring(separator + 1));
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,65 @@
+package com.regression.framework.api.service;
+
+import java.sql.Timestamp;
+
+// One buffered test_case_results row. TestDurationService fills the duration columns during the flush,
+// just before the rows are inserted.
+final class CaseResultRow {
+
+    private final String runId;
+    private final String jobId;
+    private final String testName;
+    private final String status;
+    private final Timestamp startTime;
+    private final Timestamp endTime;
+    private final Long executionTime;
+    private final String errorMessage;
+    private final String screenshotPath;
+    private final String screenshotHash;
+    private final String stackTrace;
+    private final String artifactRefs;
+    private final boolean quarantined;
+    private Long baselineMillis;
+    private Double durationZScore;
+    private Boolean durationRegression;
+
+    CaseResultRow(String runId, String jobId, String testName, String status, Timestamp startTime,
+                  Timestamp endTime, Long executionTime, String errorMessage, String screenshotPath,
+                  String screenshotHash, String stackTrace, String artifactRefs, boolean quarantined) {
+        this.runId = runId;
+        this.jobId = jobId;
+        this.testName = testName;
+        this.status = status;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.executionTime = executionTime;
+        this.errorMessage = errorMessage;
+        this.screenshotPath = screenshotPath;
+        this.screenshotHash = screenshotHash;
+        this.stackTrace = stackTrace;
+        this.artifactRefs = artifactRefs;
+        this.quarantined = quarantined;
+    }
+
+    String getRunId() { return runId; }
+    String getTestName() { return testName; }
+    String getStatus() { return status; }
+    Long getExecutionTime() { return executionTime; }
+    Long getBaselineMillis() { return baselineMillis; }
+    Double getDurationZScore() { return durationZScore; }
+    Boolean getDurationRegression() { return durationRegression; }
+
+    void flagDuration(long baselineMillis, double zScore, boolean regression) {
+        this.baselineMillis = baselineMillis;
+        this.durationZScore = zScore;
+        this.durationRegression = regression;
+    }
+
+    // In the column order of ResultWriteBehindBuffer's insert
+    Object[] toInsertArgs() {
+        return new Object[]{
+                runId, jobId, testName, status, startTime, endTime, executionTime,
+                errorMessage, screenshotPath, screenshotHash, stackTrace, artifactRefs,
+                baselineMillis, durationZScore, durationRegression, quarantined};
+    }
+}
@@ -0,0 +1,407 @@
+package com.regression.framework.api.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import com.regression.framework.models.TestResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Coalesces result batches per run and writes them to test_runs and test_case_results in JDBC batches
+@Component
+public class ResultWriteBehindBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultWriteBehindBuffer.class);
+
+    static final int SCREENSHOT_PATHS_LIMIT = 4000;
+    static final int FAILURE_DETAILS_LIMIT = 1000;
+    private static final int ERROR_MESSAGE_LIMIT = 2000;
+    private static final int SCREENSHOT_PATH_LIMIT = 500;
+    private static final int ARTIFACT_REFS_LIMIT = 1000;
+
+    private static final String INSERT_CASE_RESULT_SQL =
+            "INSERT INTO test_case_results (run_id, job_id, test_name, status, start_time, end_time, "
+                    + "execution_time, error_message, screenshot_path, screenshot_hash, stack_trace, artifact_refs, "
+                    + "baseline_millis, duration_z_score, duration_regression, quarantined) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_COUNTERS_SQL =
+            "UPDATE test_runs SET "
+                    + "total_tests = COALESCE(total_tests, 0) + ?, "
+                    + "passed_tests = COALESCE(passed_tests, 0) + ?, "
+                    + "failed_tests = COALESCE(failed_tests, 0) + ?, "
+                    + "completed_shards = COALESCE(completed_shards, 0) + ?, "
+                    + "failed_shards = COALESCE(failed_shards, 0) + ?, "
+                    + "screenshot_paths = LEFT(CONCAT(COALESCE(screenshot_paths, ''), ?), " + SCREENSHOT_PATHS_LIMIT + "), "
+                    + "failure_details = LEFT(CONCAT(COALESCE(failure_details, ''), ?), " + FAILURE_DETAILS_LIMIT + ") "
+                    + "WHERE run_id = ?";
+
+    // Each shard job links its own report, so shards of one run never overwrite each other's
+    private static final String MERGE_REPORT_SQL =
+            "MERGE INTO test_run_reports t "
+                    + "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(1000)), "
+                    + "CAST(? AS TIMESTAMP))) s (run_id, job_id, report_url, created_at) "
+                    + "ON t.run_id = s.run_id AND t.job_id = s.job_id "
+                    + "WHEN MATCHED THEN UPDATE SET t.report_url = s.report_url, t.created_at = s.created_at "
+                    + "WHEN NOT MATCHED THEN INSERT (run_id, job_id, report_url, created_at) "
+                    + "VALUES (s.run_id, s.job_id, s.report_url, s.created_at)";
+
+    // Runs after the counters so it sees this flush's shard totals; a stopped or aborted run keeps its status
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE test_runs SET "
+                    + "end_time = CASE WHEN COALESCE(completed_shards, 0) >= COALESCE(shard_count, 1) "
+                    + "THEN COALESCE(end_time, ?) ELSE end_time END, "
+                    + "status = CASE WHEN COALESCE(completed_shards, 0) >= COALESCE(shard_count, 1) "
+                    + "THEN (CASE WHEN COALESCE(failed_shards, 0) > 0 THEN 'FAILED' ELSE 'COMPLETED' END) "
+                    + "ELSE 'RUNNING' END "
+                    + "WHERE run_id = ? AND (status IS NULL OR status NOT IN ('STOPPED', 'ABORTED'))";
+
+    // Runs after the status update, so only a run that is still going is aborted
+    private static final String ABORT_ON_FAILURES_SQL =
+            "UPDATE test_runs SET status = 'ABORTED', end_time = COALESCE(end_time, ?) "
+                    + "WHERE run_id = ? AND fail_fast_threshold > 0 "
+                    + "AND COALESCE(failed_tests, 0) >= fail_fast_threshold "
+                    + "AND (status IS NULL OR status IN ('SCHEDULED', 'RUNNING'))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RunCancellationPublisher runCancellationPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestImpactService testImpactService;
+
+    @Autowired
+    private TestDurationService testDurationService;
+
+    @Autowired
+    private TestFlakinessService testFlakinessService;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Value("${test-run.write-behind.max-pending-batches:500}")
+    private int maxPendingBatches;
+
+    // A run whose writes keep failing is parked (logged and dropped) after this many attempts
+    @Value("${test-run.write-behind.max-flush-attempts:8}")
+    private int maxFlushAttempts;
+
+    // Doubles after each failed attempt of a run, up to max-retry-delay-ms
+    @Value("${test-run.write-behind.retry-delay-ms:500}")
+    private long retryDelayMillis;
+
+    @Value("${test-run.write-behind.max-retry-delay-ms:30000}")
+    private long maxRetryDelayMillis;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, PendingRunUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingBatches = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void enqueue(String runId, String jobId, List<TestResult> results,
+                        int totalTests, int passedTests, int failedTests,
+                        String screenshotPaths, String failureDetails,
+                        boolean shardComplete, String shardStatus, String reportUrl,
+                        String environment, boolean quarantine) {
+        List<CaseResultRow> caseRows = toCaseRows(runId, jobId, results, quarantine);
+        List<TestFlakinessService.OutcomeRow> outcomeRows = TestFlakinessService.toOutcomeRows(environment, results);
+        pending.compute(runId, (id, update) -> {
+            PendingRunUpdate merged = update != null ? update : new PendingRunUpdate();
+            merged.add(totalTests, passedTests, failedTests, screenshotPaths, failureDetails,
+                    shardComplete, "FAILED".equals(shardStatus) || "ABORTED".equals(shardStatus), jobId, reportUrl);
+            merged.caseRows.addAll(caseRows);
+            merged.outcomeRows.addAll(outcomeRows);
+            merged.addCoverage(results);
+            return merged;
+        });
+
+        // Size threshold: the listener thread pays for the flush, which throttles a burst
+        if (pendingBatches.incrementAndGet() >= maxPendingBatches) {
+            flush();
+        }
+    }
+
+    // Time threshold: bounds how stale GET /api/runs/{runId} can be
+    @Scheduled(fixedDelayString = "${test-run.write-behind.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    public void flush() {
+        flush(false);
+    }
+
+    private synchronized void flush(boolean ignoreBackoff) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Runs backing off after a failed write stay queued, and new batches keep merging into them
+        long nowMillis = System.currentTimeMillis();
+        Map<String, PendingRunUpdate> drained = new HashMap<>();
+        for (String runId : new ArrayList<>(pending.keySet())) {
+            pending.computeIfPresent(runId, (id, update) -> {
+                if (!ignoreBackoff && update.retryAt > nowMillis) {
+                    return update;
+                }
+                drained.put(id, update);
+                return null;
+            });
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        drained.values().forEach(update -> pendingBatches.addAndGet(-update.batches));
+
+        try {
+            write(drained);
+            logger.debug("Flushed result updates for {} run(s)", drained.size());
+        } catch (Exception e) {
+            if (drained.size() == 1) {
+                drained.forEach((runId, update) -> retryOrPark(runId, update, e));
+                return;
+            }
+            // One bad row must not hold back every other run: write them one transaction each
+            logger.warn("Failed to flush result updates for {} run(s), retrying run by run: {}",
+                    drained.size(), e.getMessage());
+            drained.forEach((runId, update) -> {
+                try {
+                    write(Map.of(runId, update));
+                } catch (Exception runError) {
+                    retryOrPark(runId, update, runError);
+                }
+            });
+        }
+    }
+
+    private void write(Map<String, PendingRunUpdate> drained) {
+        List<CaseResultRow> caseRows = new ArrayList<>();
+        List<TestFlakinessService.OutcomeRow> outcomeRows = new ArrayList<>();
+        List<Object[]> counterArgs = new ArrayList<>(drained.size());
+        List<Object[]> statusArgs = new ArrayList<>(drained.size());
+        List<Object[]> abortArgs = new ArrayList<>();
+        List<Object[]> reportArgs = new ArrayList<>();
+        Map<String, Set<String>> componentsByTest = new HashMap<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<String, PendingRunUpdate> entry : drained.entrySet()) {
+            PendingRunUpdate update = entry.getValue();
+            caseRows.addAll(update.caseRows);
+            outcomeRows.addAll(update.outcomeRows);
+            update.coverage.forEach((testName, components) ->
+                    componentsByTest.computeIfAbsent(testName, name -> new TreeSet<>()).addAll(components));
+            counterArgs.add(new Object[]{
+                    update.totalTests, update.passedTests, update.failedTests,
+                    update.completedShards, update.failedShards,
+                    update.screenshotPaths.toString(), update.failureDetails.toString(), entry.getKey()});
+            update.reportUrls.forEach((jobId, reportUrl) ->
+                    reportArgs.add(new Object[]{entry.getKey(), jobId, reportUrl, now}));
+            statusArgs.add(new Object[]{now, entry.getKey()});
+            if (update.failedTests > 0) {
+                abortArgs.add(new Object[]{now, entry.getKey()});
+            }
+        }
+
+        // One flush serves many runs, so the span lists the run IDs it persisted
+        Observation observation = Observation.createNotStarted("test-run.results.flush", observationRegistry)
+                .contextualName("flush results")
+                .highCardinalityKeyValue("runIds", String.join(",", drained.keySet()))
+                .highCardinalityKeyValue("rows", String.valueOf(caseRows.size()));
+        List<String> aborted = new ArrayList<>();
+        observation.observe(() -> transactionTemplate.executeWithoutResult(status -> {
+            if (!caseRows.isEmpty()) {
+                // Judge against the baselines as they were before this flush's durations are folded in
+                testDurationService.flagRegressions(caseRows);
+                List<Object[]> caseArgs = new ArrayList<>(caseRows.size());
+                for (CaseResultRow row : caseRows) {
+                    caseArgs.add(row.toInsertArgs());
+                }
+                jdbcTemplate.batchUpdate(INSERT_CASE_RESULT_SQL, caseArgs);
+                testImpactService.recordCoverage(componentsByTest, now);
+                testDurationService.recordDurations(caseRows, now);
+                testFlakinessService.recordOutcomes(outcomeRows, now);
+            }
+            jdbcTemplate.batchUpdate(UPDATE_COUNTERS_SQL, counterArgs);
+            if (!reportArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(MERGE_REPORT_SQL, reportArgs);
+            }
+            jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, statusArgs);
+            // Fail-fast counts the whole run: every shard's failures land in failed_tests
+            if (!abortArgs.isEmpty()) {
+                int[] abortedRows = jdbcTemplate.batchUpdate(ABORT_ON_FAILURES_SQL, abortArgs);
+                for (int i = 0; i < abortedRows.length; i++) {
+                    if (abortedRows[i] > 0) {
+                        aborted.add((String) abortArgs.get(i)[1]);
+                    }
+                }
+            }
+        }));
+
+        // Only once committed, so a rolled-back flush never stops a run
+        for (String runId : aborted) {
+            logger.warn("Run {} reached its fail-fast threshold, aborting it on every worker", runId);
+            runCancellationPublisher.publish(runId, "Fail-fast threshold of failed tests reached");
+        }
+    }
+
+    // Backs the run off and requeues it, or parks it once it is out of attempts so a poison run can
+    // neither grow the buffer without bound nor make every enqueue pay for a failing flush
+    private void retryOrPark(String runId, PendingRunUpdate update, Exception e) {
+        update.attempts++;
+        if (update.attempts >= maxFlushAttempts) {
+            logger.error("Parking result updates for run {} after {} failed write(s); dropped {} batch(es) "
+                            + "with {} test result row(s)",
+                    runId, update.attempts, update.batches, update.caseRows.size(), e);
+            return;
+        }
+
+        long delay = Math.min(retryDelayMillis << Math.min(update.attempts - 1, 20), maxRetryDelayMillis);
+        update.retryAt = System.currentTimeMillis() + delay;
+        logger.warn("Failed to write result updates for run {} (attempt {}/{}), retrying in {} ms: {}",
+                runId, update.attempts, maxFlushAttempts, delay, e.getMessage());
+        // Batches that arrived during the failed write are newer, so they are folded into the failed update
+        int requeued = update.batches;
+        pending.compute(runId, (id, newer) -> newer != null ? update.mergeFrom(newer) : update);
+        pendingBatches.addAndGet(requeued);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush(true);
+    }
+
+    private static List<CaseResultRow> toCaseRows(String runId, String jobId, List<TestResult> results,
+                                                  boolean quarantine) {
+        if (results == null || results.isEmpty()) {
+            return List.of();
+        }
+
+        List<CaseResultRow> rows = new ArrayList<>(results.size());
+        for (TestResult result : results) {
+            rows.add(new CaseResultRow(
+                    runId, jobId, result.getTestName(), result.getStatus(),
+                    toTimestamp(result.getStartTime()), toTimestamp(result.getEndTime()),
+                    result.getExecutionTime(),
+                    truncate(result.getErrorMessage(), ERROR_MESSAGE_LIMIT),
+                    truncate(result.getScreenshotPath(), SCREENSHOT_PATH_LIMIT),
+                    result.getScreenshotHash(),
+                    result.getStackTrace(),
+                    truncate(ArtifactService.formatRefs(result.getArtifactRefs()), ARTIFACT_REFS_LIMIT),
+                    quarantine));
+        }
+        return rows;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    private static String truncate(String value, int limit) {
+        return value != null && value.length() > limit ? value.substring(0, limit) : value;
+    }
+
+    static class PendingRunUpdate {
+        private int batches;
+        private int attempts;
+        private long retryAt;
+        private int totalTests;
+        private int passedTests;
+        private int failedTests;
+        private int completedShards;
+        private int failedShards;
+        private final StringBuilder screenshotPaths = new StringBuilder();
+        private final StringBuilder failureDetails = new StringBuilder();
+        private final Map<String, String> reportUrls = new LinkedHashMap<>();   // job ID -> report
+        private final List<CaseResultRow> caseRows = new ArrayList<>();
+        private final List<TestFlakinessService.OutcomeRow> outcomeRows = new ArrayList<>();
+        private final Map<String, Set<String>> coverage = new HashMap<>();   // test name -> components reached
+
+        void add(int total, int passed, int failed, String screenshots, String failures,
+                         boolean shardComplete, boolean shardFailed, String jobId, String report) {
+            batches++;
+            totalTests += total;
+            passedTests += passed;
+            failedTests += failed;
+            if (shardComplete) {
+                completedShards++;
+                if (shardFailed) {
+                    failedShards++;
+                }
+            }
+            appendBounded(screenshotPaths, screenshots, SCREENSHOT_PATHS_LIMIT);
+            appendBounded(failureDetails, failures, FAILURE_DETAILS_LIMIT);
+            if (report != null) {
+                reportUrls.put(jobId, report);
+            }
+        }
+
+        void addCoverage(List<TestResult> results) {
+            if (results == null) {
+                return;
+            }
+            for (TestResult result : results) {
+                if (result.getComponents() != null && !result.getComponents().isEmpty()) {
+                    coverage.computeIfAbsent(result.getTestName(), name -> new TreeSet<>())
+                            .addAll(result.getComponents());
+                }
+            }
+        }
+
+        // Folds newer batches into a failed update: rows stay in arrival order, the newer report links win,
+        // and the run keeps its backoff
+        PendingRunUpdate mergeFrom(PendingRunUpdate other) {
+            batches += other.batches;
+            attempts = Math.max(attempts, other.attempts);
+            retryAt = Math.max(retryAt, other.retryAt);
+            caseRows.addAll(other.caseRows);
+            outcomeRows.addAll(other.outcomeRows);
+            totalTests += other.totalTests;
+            passedTests += other.passedTests;
+            failedTests += other.failedTests;
+            completedShards += other.completedShards;
+            failedShards += other.failedShards;
+            appendBounded(screenshotPaths, other.screenshotPaths.toString(), SCREENSHOT_PATHS_LIMIT);
+            appendBounded(failureDetails, other.failureDetails.toString(), FAILURE_DETAILS_LIMIT);
+            reportUrls.putAll(other.reportUrls);
+            other.coverage.forEach((testName, components) ->
+                    coverage.computeIfAbsent(testName, name -> new TreeSet<>()).addAll(components));
+            return this;
+        }
+
+        private static void appendBounded(StringBuilder target, String addition, int limit) {
+            if (addition == null || target.length() >= limit) {
+                return;
+            }
+            target.append(addition, 0, Math.min(addition.length(), limit - target.length()));
+        }
+    }
+}
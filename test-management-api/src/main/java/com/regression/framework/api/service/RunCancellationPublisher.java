@@ -0,0 +1,27 @@
+package com.regression.framework.api.service;
+
+import com.regression.framework.models.RunCancellation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Broadcasts a stopped or aborted run to every worker through the test-run-cancellations fanout
+@Component
+public class RunCancellationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunCancellationPublisher.class);
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    public void publish(String runId, String reason) {
+        try {
+            rabbitTemplate.convertAndSend("test-run-cancellations", "", new RunCancellation(runId, reason));
+            logger.info("Published cancellation for run {}: {}", runId, reason);
+        } catch (Exception e) {
+            logger.error("Failed to publish cancellation for run {}", runId, e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.regression.framework.api.service;
+
+import com.regression.framework.api.entity.TestDurationEntity;
+import com.regression.framework.api.repository.TestDurationRepository;
+import com.regression.framework.models.TestExecutionJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps an EWMA of each test's execution time and its variance; runs are packed onto shards from the
+// estimates, and each new result is z-tested against the baseline before it is folded in
+@Service
+public class TestDurationService {
+
+    // Update clauses all read the pre-update row, so the variance uses the old mean (incremental EWMA variance)
+    private static final String MERGE_DURATION_SQL =
+            "MERGE INTO test_durations t "
+                    + "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION), CAST(? AS TIMESTAMP), "
+                    + "CAST(? AS DOUBLE PRECISION))) "
+                    + "s (test_name, millis, seen, alpha) "
+                    + "ON t.test_name = s.test_name "
+                    + "WHEN MATCHED THEN UPDATE SET "
+                    + "t.ewma_millis = COALESCE(t.ewma_millis, s.millis) + s.alpha * (s.millis - COALESCE(t.ewma_millis, s.millis)), "
+                    + "t.ewma_variance = (1 - s.alpha) * (COALESCE(t.ewma_variance, 0) "
+                    + "+ s.alpha * POWER(s.millis - COALESCE(t.ewma_millis, s.millis), 2)), "
+                    + "t.samples = COALESCE(t.samples, 0) + 1, t.last_updated = s.seen "
+                    + "WHEN NOT MATCHED THEN INSERT (test_name, ewma_millis, ewma_variance, samples, last_updated) "
+                    + "VALUES (s.test_name, s.millis, 0, 1, s.seen)";
+
+    // Stops a very steady test from being flagged for a few milliseconds of jitter
+    private static final double MIN_RELATIVE_STDDEV = 0.05;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestDurationRepository testDurationRepository;
+
+    // Weight of the newest sample; higher reacts faster to tests getting slower
+    @Value("${test-run.durations.alpha:0.3}")
+    private double alpha;
+
+    @Value("${test-run.durations.regression.z-threshold:3.0}")
+    private double zThreshold;
+
+    @Value("${test-run.durations.regression.min-ratio:1.5}")
+    private double minRatio;
+
+    @Value("${test-run.durations.regression.min-samples:5}")
+    private int minSamples;
+
+    // Tests not seen for this long drop out of full-suite packing, so deleted or renamed tests stop
+    // counting as shard load
+    @Value("${test-run.durations.history-days:30}")
+    private int historyDays;
+
+    // Null selection means every test with recent history
+    public List<TestDurationEntity> baselines(List<String> selectedTests) {
+        return selectedTests == null
+                ? testDurationRepository.findByLastUpdatedAfter(LocalDateTime.now().minusDays(historyDays))
+                : testDurationRepository.findByTestNameIn(selectedTests);
+    }
+
+    // Longest-processing-time-first: the slowest remaining test goes to the lightest shard. Each job
+    // then carries only its own shard's estimates; tests without history are placed by name hash.
+    static List<List<TestDurationEntity>> packShards(List<TestDurationEntity> baselines, int shardCount) {
+        List<TestDurationEntity> slowestFirst = new ArrayList<>();
+        for (TestDurationEntity duration : baselines) {
+            if (duration.getEwmaMillis() != null) {
+                slowestFirst.add(duration);
+            }
+        }
+        slowestFirst.sort(Comparator.comparingDouble(TestDurationEntity::getEwmaMillis).reversed()
+                .thenComparing(TestDurationEntity::getTestName));
+
+        List<List<TestDurationEntity>> shards = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(new ArrayList<>());
+        }
+        double[] loads = new double[shardCount];
+        for (TestDurationEntity duration : slowestFirst) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            loads[lightest] += duration.getEwmaMillis();
+            shards.get(lightest).add(duration);
+        }
+        return shards;
+    }
+
+    // Known tests whose name hash points at this shard but that were packed onto another one; the
+    // worker skips them instead of mistaking them for tests without history
+    static List<String> placedElsewhere(List<List<TestDurationEntity>> shards, int shardIndex) {
+        List<String> elsewhere = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shard == shardIndex) {
+                continue;
+            }
+            for (TestDurationEntity duration : shards.get(shard)) {
+                if (TestExecutionJob.hashShard(duration.getTestName(), shards.size()) == shardIndex) {
+                    elsewhere.add(duration.getTestName());
+                }
+            }
+        }
+        return elsewhere;
+    }
+
+    public Map<String, Long> expectedDurations(List<TestDurationEntity> baselines) {
+        Map<String, Long> expected = new HashMap<>(baselines.size() * 2);
+        for (TestDurationEntity duration : baselines) {
+            if (duration.getEwmaMillis() != null) {
+                expected.put(duration.getTestName(), Math.round(duration.getEwmaMillis()));
+            }
+        }
+        return expected;
+    }
+
+    // Shipped with each job so the worker's report flags the same slowdowns the API does
+    public Map<String, Long> regressionThresholds(List<TestDurationEntity> baselines) {
+        Map<String, Long> thresholds = new HashMap<>(baselines.size() * 2);
+        for (TestDurationEntity duration : baselines) {
+            Long threshold = regressionThreshold(duration);
+            if (threshold != null) {
+                thresholds.put(duration.getTestName(), threshold);
+            }
+        }
+        return thresholds;
+    }
+
+    // One-sided z-test on a single execution, plus a minimum slowdown ratio so a significant but tiny
+    // change on a very stable test is not reported. Null while the baseline has too few samples.
+    private Long regressionThreshold(TestDurationEntity duration) {
+        if (duration == null || duration.getEwmaMillis() == null
+                || duration.getSamples() == null || duration.getSamples() < minSamples) {
+            return null;
+        }
+        double mean = duration.getEwmaMillis();
+        return (long) Math.ceil(Math.max(mean + zThreshold * stdDev(duration), mean * minRatio));
+    }
+
+    private static double stdDev(TestDurationEntity duration) {
+        double variance = duration.getEwmaVariance() != null ? duration.getEwmaVariance() : 0;
+        return Math.max(Math.sqrt(variance), Math.max(1.0, duration.getEwmaMillis() * MIN_RELATIVE_STDDEV));
+    }
+
+    // Only passing runs describe how long a test takes: a failure can stop early or sit in a timeout
+    private static boolean isTimedPass(CaseResultRow row) {
+        return "PASSED".equals(row.getStatus()) && row.getExecutionTime() != null;
+    }
+
+    // Called from the write-behind flush before the rows are inserted: fills their baseline, z-score and
+    // regression columns from the current baselines. One lookup per flush, constant work per row.
+    void flagRegressions(List<CaseResultRow> caseRows) {
+        Set<String> testNames = new HashSet<>();
+        for (CaseResultRow row : caseRows) {
+            if (isTimedPass(row)) {
+                testNames.add(row.getTestName());
+            }
+        }
+        if (testNames.isEmpty()) {
+            return;
+        }
+
+        Map<String, TestDurationEntity> baselines = new HashMap<>(testNames.size() * 2);
+        for (TestDurationEntity duration : testDurationRepository.findByTestNameIn(testNames)) {
+            baselines.put(duration.getTestName(), duration);
+        }
+
+        for (CaseResultRow row : caseRows) {
+            TestDurationEntity duration = baselines.get(row.getTestName());
+            Long threshold = regressionThreshold(duration);
+            if (threshold == null || !isTimedPass(row)) {
+                continue;
+            }
+            long executionTime = row.getExecutionTime();
+            double mean = duration.getEwmaMillis();
+            row.flagDuration(Math.round(mean), (executionTime - mean) / stdDev(duration), executionTime >= threshold);
+        }
+    }
+
+    // Called from the write-behind flush, inside its transaction
+    void recordDurations(List<CaseResultRow> caseRows, Timestamp seenAt) {
+        List<Object[]> mergeArgs = new ArrayList<>(caseRows.size());
+        for (CaseResultRow row : caseRows) {
+            if (isTimedPass(row)) {
+                mergeArgs.add(new Object[]{row.getTestName(), row.getExecutionTime().doubleValue(), seenAt, alpha});
+            }
+        }
+
+        if (!mergeArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE_DURATION_SQL, mergeArgs);
+        }
+    }
+}
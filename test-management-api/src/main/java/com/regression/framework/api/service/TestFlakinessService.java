@@ -0,0 +1,141 @@
+package com.regression.framework.api.service;
+
+import com.regression.framework.api.entity.TestFlakinessEntity;
+import com.regression.framework.api.repository.TestFlakinessRepository;
+import com.regression.framework.models.FlakyTestResponse;
+import com.regression.framework.models.TestResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Scores each test's flakiness per environment as an EWMA of pass/fail flips, one MERGE per result,
+// and quarantines tests whose score crosses the threshold until it decays below the release threshold
+@Service
+public class TestFlakinessService {
+
+    public static final String DEFAULT_ENVIRONMENT = "default";
+
+    // A flip is a status change since the test's previous result on the environment, or a pass that
+    // needed retries within the run
+    private static final String MERGE_OUTCOME_SQL =
+            "MERGE INTO test_flakiness t "
+                    + "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), "
+                    + "CAST(? AS DOUBLE PRECISION), CAST(? AS TIMESTAMP), CAST(? AS DOUBLE PRECISION))) "
+                    + "s (test_name, environment, status, retried_pass, seen, alpha) "
+                    + "ON t.test_name = s.test_name AND t.environment = s.environment "
+                    + "WHEN MATCHED THEN UPDATE SET "
+                    + "t.flip_score = COALESCE(t.flip_score, 0) + s.alpha * (GREATEST(s.retried_pass, "
+                    + "CASE WHEN t.last_status IS NOT NULL AND t.last_status <> s.status THEN 1.0 ELSE 0.0 END) "
+                    + "- COALESCE(t.flip_score, 0)), "
+                    + "t.last_status = s.status, t.samples = COALESCE(t.samples, 0) + 1, t.last_updated = s.seen "
+                    + "WHEN NOT MATCHED THEN INSERT (test_name, environment, flip_score, last_status, samples, "
+                    + "quarantined, last_updated) "
+                    + "VALUES (s.test_name, s.environment, s.alpha * s.retried_pass, s.status, 1, FALSE, s.seen)";
+
+    // Hysteresis: a test stays quarantined until its score has decayed well below the entry threshold.
+    // Re-evaluating a row is idempotent, so a loose "touched since" bound is enough.
+    private static final String UPDATE_QUARANTINE_SQL =
+            "UPDATE test_flakiness SET quarantined = CASE "
+                    + "WHEN flip_score >= ? AND samples >= ? THEN TRUE "
+                    + "WHEN flip_score < ? THEN FALSE "
+                    + "ELSE COALESCE(quarantined, FALSE) END "
+                    + "WHERE last_updated >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestFlakinessRepository testFlakinessRepository;
+
+    // Weight of the newest result; flips are rare for healthy tests, so the score reacts slowly
+    @Value("${test-run.flakiness.alpha:0.1}")
+    private double alpha;
+
+    @Value("${test-run.flakiness.quarantine-threshold:0.25}")
+    private double quarantineThreshold;
+
+    @Value("${test-run.flakiness.release-threshold:0.05}")
+    private double releaseThreshold;
+
+    @Value("${test-run.flakiness.min-samples:10}")
+    private int minSamples;
+
+    @Value("${test-run.flakiness.max-results:500}")
+    private int maxResults;
+
+    public static String environmentOf(String environment) {
+        return environment == null || environment.isBlank() ? DEFAULT_ENVIRONMENT : environment.trim();
+    }
+
+    public List<String> quarantinedTests(String environment) {
+        return testFlakinessRepository.findQuarantinedTestNames(environmentOf(environment));
+    }
+
+    public List<FlakyTestResponse> getFlakyTests(String environment, double minScore, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, maxResults)));
+        List<TestFlakinessEntity> flaky = environment == null
+                ? testFlakinessRepository.findByFlipScoreGreaterThanEqualOrderByFlipScoreDesc(minScore, page)
+                : testFlakinessRepository.findByEnvironmentAndFlipScoreGreaterThanEqualOrderByFlipScoreDesc(
+                        environmentOf(environment), minScore, page);
+        return flaky.stream().map(this::convertToResponse).collect(Collectors.toList());
+    }
+
+    // One buffered outcome; retriedPass is 1.0 for a pass that needed a retry, else 0.0
+    record OutcomeRow(String testName, String environment, String status, double retriedPass) {}
+
+    // Built when a batch is enqueued; skipped and cancelled results say nothing about flakiness
+    static List<OutcomeRow> toOutcomeRows(String environment, List<TestResult> results) {
+        if (results == null || results.isEmpty()) {
+            return List.of();
+        }
+
+        String env = environmentOf(environment);
+        List<OutcomeRow> rows = new ArrayList<>(results.size());
+        for (TestResult result : results) {
+            String status = result.getStatus();
+            if (!"PASSED".equals(status) && !"FAILED".equals(status)) {
+                continue;
+            }
+            boolean retriedPass = "PASSED".equals(status) && result.getAttempts() != null && result.getAttempts() > 1;
+            rows.add(new OutcomeRow(result.getTestName(), env, status, retriedPass ? 1.0 : 0.0));
+        }
+        return rows;
+    }
+
+    // Called from the write-behind flush, inside its transaction, in arrival order
+    void recordOutcomes(List<OutcomeRow> outcomeRows, Timestamp seenAt) {
+        if (outcomeRows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> mergeArgs = new ArrayList<>(outcomeRows.size());
+        for (OutcomeRow row : outcomeRows) {
+            mergeArgs.add(new Object[]{row.testName(), row.environment(), row.status(), row.retriedPass(), seenAt, alpha});
+        }
+        jdbcTemplate.batchUpdate(MERGE_OUTCOME_SQL, mergeArgs);
+
+        // The column may store seenAt at a coarser precision, so compare against the whole millisecond
+        Timestamp touchedSince = Timestamp.valueOf(seenAt.toLocalDateTime().truncatedTo(ChronoUnit.MILLIS));
+        jdbcTemplate.update(UPDATE_QUARANTINE_SQL, quarantineThreshold, minSamples, releaseThreshold, touchedSince);
+    }
+
+    private FlakyTestResponse convertToResponse(TestFlakinessEntity entity) {
+        FlakyTestResponse response = new FlakyTestResponse();
+        response.setTestName(entity.getTestName());
+        response.setEnvironment(entity.getEnvironment());
+        response.setFlipScore(entity.getFlipScore());
+        response.setSamples(entity.getSamples());
+        response.setLastStatus(entity.getLastStatus());
+        response.setQuarantined(entity.getQuarantined());
+        response.setLastUpdated(entity.getLastUpdated());
+        return response;
+    }
+}
@@ -0,0 +1,112 @@
+package com.regression.framework.api.service;
+
+import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.api.repository.TestCaseResultRepository;
+import com.regression.framework.api.repository.TestComponentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Maps tests to the components they exercise and picks the tests impacted by a change
+@Service
+public class TestImpactService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestImpactService.class);
+
+    private static final String MERGE_COMPONENT_SQL =
+            "MERGE INTO test_components t "
+                    + "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS TIMESTAMP))) "
+                    + "s (test_name, component, seen) "
+                    + "ON t.test_name = s.test_name AND t.component = s.component "
+                    + "WHEN MATCHED THEN UPDATE SET t.run_count = COALESCE(t.run_count, 0) + 1, t.last_seen = s.seen "
+                    + "WHEN NOT MATCHED THEN INSERT (test_name, component, run_count, last_seen) "
+                    + "VALUES (s.test_name, s.component, 1, s.seen)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestComponentRepository testComponentRepository;
+
+    @Autowired
+    private TestCaseResultRepository testCaseResultRepository;
+
+    @Value("${test-run.impact.lookback-days:90}")
+    private int lookbackDays;
+
+    @Value("${test-run.impact.failure-lookback-days:7}")
+    private int failureLookbackDays;
+
+    // Always scheduled alongside impacted tests
+    @Value("${test-run.impact.safety-tests:}")
+    private List<String> safetyTests;
+
+    // Names that describe the kind of run rather than a component
+    @Value("${test-run.impact.ignored-tags:smoke,regression,web,api}")
+    private List<String> ignoredTags;
+
+    // Returns null when the full suite should run: no change list, or no history for the changed components
+    public List<String> selectTests(TestRunRequest request) {
+        Set<String> changed = toComponents(request.getChangedComponents());
+        if (changed.isEmpty()) {
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> impacted = new TreeSet<>(
+                testComponentRepository.findTestNamesByComponents(changed, now.minusDays(lookbackDays)));
+        if (impacted.isEmpty()) {
+            logger.info("No coverage history for components {}; scheduling the full suite", changed);
+            return null;
+        }
+
+        Set<String> selected = new TreeSet<>(impacted);
+        selected.addAll(safetyTests);
+        selected.addAll(testCaseResultRepository.findFailedTestNamesSince(now.minusDays(failureLookbackDays)));
+        logger.info("Components {} impact {} test(s); {} selected including the safety set",
+                changed, impacted.size(), selected.size());
+        return new ArrayList<>(selected);
+    }
+
+    // Called from the write-behind flush, inside its transaction. Workers report the components each test
+    // actually reached, so coverage grows with what ran rather than echoing the tags that selected it.
+    void recordCoverage(Map<String, Set<String>> componentsByTest, Timestamp seenAt) {
+        List<Object[]> mergeArgs = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : componentsByTest.entrySet()) {
+            for (String component : toComponents(entry.getValue())) {
+                mergeArgs.add(new Object[]{entry.getKey(), component, seenAt});
+            }
+        }
+
+        if (!mergeArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE_COMPONENT_SQL, mergeArgs);
+        }
+    }
+
+    private Set<String> toComponents(Collection<String> values) {
+        Set<String> components = new TreeSet<>();
+        if (values == null) {
+            return components;
+        }
+        for (String value : values) {
+            String component = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+            if (!component.isEmpty() && !ignoredTags.contains(component)) {
+                components.add(component);
+            }
+        }
+        return components;
+    }
+}
@@ -1,17 +1,39 @@
 package com.regression.framework.api.service;
 
+import com.regression.framework.models.RunTimelineResponse;
+import com.regression.framework.models.ShardTimeline;
 import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.models.TestRunPage;
 import com.regression.framework.models.TestRunResponse;
 import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestCaseResultPage;
+import com.regression.framework.models.TestCaseResultResponse;
+import com.regression.framework.models.TestResult;
+import com.regression.framework.api.entity.TestDurationEntity;
 import com.regression.framework.api.entity.TestRunEntity;
+import com.regression.framework.api.repository.TestCaseResultRepository;
+import com.regression.framework.api.repository.TestCaseResultSummary;
+import com.regression.framework.api.repository.TestCaseTiming;
+import com.regression.framework.api.repository.TestRunReportRepository;
 import com.regression.framework.api.repository.TestRunRepository;
+import com.regression.framework.api.repository.TestRunSummary;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,8 +47,47 @@ public class TestRunService {
     @Autowired
     private TestRunRepository testRunRepository;
 
+    @Autowired
+    private TestCaseResultRepository testCaseResultRepository;
+
+    @Autowired
+    private TestRunReportRepository testRunReportRepository;
+
+    @Autowired
+    private ResultWriteBehindBuffer resultWriteBehindBuffer;
+
+    @Autowired
+    private RunCancellationPublisher runCancellationPublisher;
+
+    @Autowired
+    private TestImpactService testImpactService;
+
+    @Autowired
+    private TestDurationService testDurationService;
+
+    @Autowired
+    private TestFlakinessService testFlakinessService;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Value("${test-run.sharding.max-shards:32}")
+    private int maxShards;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // The scheduling span is the parent of every shard job's publish, so one trace covers the whole run
     public TestRunResponse scheduleTestRun(TestRunRequest testRunRequest) {
         String runId = "RUN_" + System.currentTimeMillis();
+        return Observation.createNotStarted("test-run.schedule", observationRegistry)
+                .contextualName("schedule " + testRunRequest.getTestSuiteName())
+                .lowCardinalityKeyValue("suite", String.valueOf(testRunRequest.getTestSuiteName()))
+                .lowCardinalityKeyValue("executionType", String.valueOf(testRunRequest.getExecutionType()))
+                .highCardinalityKeyValue("runId", runId)
+                .observe(() -> schedule(runId, testRunRequest));
+    }
+
+    private TestRunResponse schedule(String runId, TestRunRequest testRunRequest) {
 
         // Save to database
         TestRunEntity entity = new TestRunEntity();
@@ -35,6 +96,14 @@ public class TestRunService {
         entity.setStatus("SCHEDULED");
         entity.setStartTime(LocalDateTime.now());
 
+        int shardCount = resolveShardCount(testRunRequest);
+        entity.setShardCount(shardCount);
+        // Checked against the run's total failures on every result flush, across all shards
+        Integer failFastThreshold = testRunRequest.getFailFastThreshold();
+        entity.setFailFastThreshold(failFastThreshold != null && failFastThreshold > 0 ? failFastThreshold : null);
+        entity.setCompletedShards(0);
+        entity.setFailedShards(0);
+
         if (testRunRequest.getTags() != null) {
             entity.setTags(String.join(",", testRunRequest.getTags()));
         }
@@ -45,15 +114,68 @@ public class TestRunService {
 
         testRunRepository.save(entity);
 
-        // Create and send job to RabbitMQ
-        TestExecutionJob job = new TestExecutionJob(runId, testRunRequest);
-        rabbitTemplate.convertAndSend("test-execution-queue", job);
+        // Narrow the run to tests impacted by the changed components, if any were given
+        List<String> selectedTests = testImpactService.selectTests(testRunRequest);
+        List<TestDurationEntity> baselines = testDurationService.baselines(selectedTests);
+
+        // Quarantined tests leave the gating shards and run in one extra job on the nightly lane
+        List<String> quarantined = new ArrayList<>(testFlakinessService.quarantinedTests(testRunRequest.getEnvironment()));
+        if (selectedTests != null) {
+            quarantined.retainAll(selectedTests);
+        }
+        Set<String> quarantinedNames = new HashSet<>(quarantined);
+        List<TestDurationEntity> gatingBaselines = new ArrayList<>();
+        List<TestDurationEntity> quarantineBaselines = new ArrayList<>();
+        for (TestDurationEntity baseline : baselines) {
+            (quarantinedNames.contains(baseline.getTestName()) ? quarantineBaselines : gatingBaselines).add(baseline);
+        }
+
+        // Packed here so each shard job carries only its own tests' estimates, not the whole history
+        List<List<TestDurationEntity>> shardBaselines = TestDurationService.packShards(gatingBaselines, shardCount);
+
+        // Create and send one job per shard to RabbitMQ, on the run's priority lane
+        TestRunRequest.Priority priority = testRunRequest.getPriority() != null
+                ? testRunRequest.getPriority() : TestRunRequest.Priority.PR;
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            TestExecutionJob job = new TestExecutionJob(runId, testRunRequest);
+            if (shardCount > 1) {
+                job.setJobId(job.getJobId() + "_S" + shardIndex);
+            }
+            job.setShardIndex(shardIndex);
+            job.setShardCount(shardCount);
+            job.setTestNames(selectedTests);
+            job.setExpectedDurations(testDurationService.expectedDurations(shardBaselines.get(shardIndex)));
+            job.setDurationThresholds(testDurationService.regressionThresholds(shardBaselines.get(shardIndex)));
+            List<String> placedElsewhere = TestDurationService.placedElsewhere(shardBaselines, shardIndex);
+            job.setPlacedElsewhere(placedElsewhere.isEmpty() ? null : placedElsewhere);
+            job.setExcludedTests(quarantined.isEmpty() ? null : quarantined);
+            rabbitTemplate.convertAndSend(priority.getQueueName(), job);
+        }
+        logger.info("Scheduled run {} as {} shard job(s) on the {} lane", runId, shardCount, priority);
+
+        // Not counted in shard_count, so the run's status never waits for or depends on it
+        if (!quarantined.isEmpty()) {
+            TestExecutionJob quarantineJob = new TestExecutionJob(runId, testRunRequest);
+            quarantineJob.setJobId(quarantineJob.getJobId() + "_Q");
+            quarantineJob.setQuarantine(true);
+            quarantineJob.setTestNames(quarantined);
+            quarantineJob.setExpectedDurations(testDurationService.expectedDurations(quarantineBaselines));
+            quarantineJob.setDurationThresholds(testDurationService.regressionThresholds(quarantineBaselines));
+            rabbitTemplate.convertAndSend(TestRunRequest.Priority.NIGHTLY.getQueueName(), quarantineJob);
+            logger.info("Run {} runs {} quarantined test(s) in a non-gating job", runId, quarantined.size());
+        }
 
         TestRunResponse response = new TestRunResponse();
         response.setRunId(runId);
         response.setStatus("SCHEDULED");
         response.setStartTime(entity.getStartTime());
-        response.setMessage("Test run scheduled successfully");
+        String message = selectedTests == null
+                ? "Test run scheduled successfully"
+                : "Test run scheduled successfully with " + selectedTests.size() + " impacted test(s)";
+        if (!quarantined.isEmpty()) {
+            message += "; " + quarantined.size() + " quarantined test(s) run without gating the result";
+        }
+        response.setMessage(message);
 
         return response;
     }
@@ -61,72 +183,222 @@ public class TestRunService {
     public TestRunResponse getTestRunStatus(String runId) {
         Optional<TestRunEntity> entityOpt = testRunRepository.findById(runId);
         if (entityOpt.isPresent()) {
-            return convertToResponse(entityOpt.get());
+            TestRunResponse response = convertToResponse(entityOpt.get());
+            response.setDurationRegressions(testCaseResultRepository
+                    .findByRunIdAndDurationRegressionTrueOrderByDurationZScoreDesc(runId)
+                    .stream()
+                    .map(this::convertToCaseResponse)
+                    .collect(Collectors.toList()));
+            Map<String, String> reports = new LinkedHashMap<>();
+            testRunReportRepository.findByRunIdOrderByJobIdAsc(runId)
+                    .forEach(report -> reports.put(report.getJobId(), report.getReportUrl()));
+            response.setReportUrls(reports);
+            response.setReportUrl(reports.size() == 1 ? reports.values().iterator().next() : null);
+            return response;
         }
         return new TestRunResponse(runId, "NOT_FOUND", "Test run not found");
     }
 
     public TestRunResponse stopTestRun(String runId) {
-        Optional<TestRunEntity> entityOpt = testRunRepository.findById(runId);
-        if (entityOpt.isPresent()) {
-            TestRunEntity entity = entityOpt.get();
-            entity.setStatus("STOPPED");
-            entity.setEndTime(LocalDateTime.now());
-            testRunRepository.save(entity);
-
-            return convertToResponse(entity);
+        // Targeted update so a concurrent result flush never has its counters overwritten
+        if (testRunRepository.updateStatus(runId, "STOPPED", LocalDateTime.now()) > 0) {
+            runCancellationPublisher.publish(runId, "Stopped by user");
+            return getTestRunStatus(runId);
         }
         return new TestRunResponse(runId, "NOT_FOUND", "Test run not found");
     }
 
-    public List<TestRunResponse> getAllTestRuns() {
-        return testRunRepository.findAllByOrderByStartTimeDesc()
-                .stream()
+    // Keyset pagination: cost per page stays constant however much history there is
+    public TestRunPage getTestRunsPage(String status, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<TestRunSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = status == null
+                    ? testRunRepository.findFirstPage(limit)
+                    : testRunRepository.findFirstPageByStatus(status, limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            LocalDateTime startTime = LocalDateTime.parse(position[0]);
+            rows = status == null
+                    ? testRunRepository.findPageAfter(startTime, position[1], limit)
+                    : testRunRepository.findPageByStatusAfter(status, startTime, position[1], limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            TestRunSummary last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getStartTime(), last.getRunId());
+        }
+
+        List<TestRunResponse> runs = rows.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
+        return new TestRunPage(runs, nextCursor);
     }
 
-    public List<TestRunResponse> getTestRunsByStatus(String status) {
-        return testRunRepository.findByStatusOrderByStartTimeDesc(status)
-                .stream()
-                .map(this::convertToResponse)
+    static String encodeCursor(LocalDateTime startTime, String runId) {
+        String raw = startTime + "|" + runId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|", 2);
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
+
+    // Counters and shard completion are persisted asynchronously by the write-behind buffer
+    public void applyResultBatch(String runId, String jobId, List<TestResult> results,
+                                 int totalTests, int passedTests, int failedTests,
+                                 String screenshotPaths, String failureDetails,
+                                 boolean shardComplete, String shardStatus, String reportUrl,
+                                 String environment, boolean quarantine) {
+        resultWriteBehindBuffer.enqueue(runId, jobId, results, totalTests, passedTests, failedTests,
+                screenshotPaths, failureDetails, shardComplete, shardStatus, reportUrl, environment, quarantine);
+    }
+
+    // Keyset pages in the order results arrived; stack traces stay out of the list
+    public TestCaseResultPage getTestCaseResultsPage(String runId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<TestCaseResultSummary> rows = cursor == null || cursor.isBlank()
+                ? testCaseResultRepository.findByRunIdOrderByIdAsc(runId, limit)
+                : testCaseResultRepository.findByRunIdAndIdGreaterThanOrderByIdAsc(runId, decodeResultCursor(cursor), limit);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeResultCursor(rows.get(pageSize - 1).getId());
+        }
+
+        List<TestCaseResultResponse> results = rows.stream()
+                .map(this::convertToCaseResponse)
                 .collect(Collectors.toList());
+        return new TestCaseResultPage(results, nextCursor);
     }
 
-    public void updateTestRunStatus(String runId, String status, String reportUrl,
-                                    Integer totalTests, Integer passedTests, Integer failedTests,
-                                    String screenshotPaths, String failureDetails) {
+    static String encodeResultCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
 
-        // 🔽 ADD DEBUG LOGGING HERE:
-        logger.info("DEBUG TestRunService - Updating run: {}", runId);
-        logger.info("DEBUG TestRunService - Screenshot paths received: {}", screenshotPaths);
-        logger.info("DEBUG TestRunService - Failure details received: {}", failureDetails);
+    static Long decodeResultCursor(String cursor) {
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
 
-        Optional<TestRunEntity> entityOpt = testRunRepository.findById(runId);
-        if (entityOpt.isPresent()) {
-            TestRunEntity entity = entityOpt.get();
-            entity.setStatus(status);
-            entity.setEndTime(LocalDateTime.now());
-            entity.setReportUrl(reportUrl);
-            entity.setTotalTests(totalTests);
-            entity.setPassedTests(passedTests);
-            entity.setFailedTests(failedTests);
-
-            // 👇 STORE SCREENSHOT PATHS AND FAILURE DETAILS
-            entity.setScreenshotPaths(screenshotPaths);
-            entity.setFailureDetails(failureDetails);
-
-            // 🔽 ADD DEBUG BEFORE SAVE:
-            logger.info("DEBUG TestRunService - Before save - ScreenshotPaths: {}", entity.getScreenshotPaths());
-            logger.info("DEBUG TestRunService - Before save - FailureDetails: {}", entity.getFailureDetails());
-
-            testRunRepository.save(entity);
-
-            // 🔽 ADD DEBUG AFTER SAVE:
-            logger.info("DEBUG TestRunService - After save - Successfully updated database");
-        } else {
-            logger.error("DEBUG TestRunService - Run not found: {}", runId);
+    public RunTimelineResponse getRunTimeline(String runId, int longest) {
+        int pathLength = Math.max(0, Math.min(longest, MAX_PAGE_SIZE));
+        return buildTimeline(runId, testCaseResultRepository.findTimingByRunId(runId), pathLength);
+    }
+
+    // Shards run side by side, so the run's wall time is set by the gating shard that finished last.
+    // Its idle time (waiting for a worker, or gaps between tests) and its longest tests are what to cut.
+    static RunTimelineResponse buildTimeline(String runId, List<TestCaseTiming> rows, int pathLength) {
+        RunTimelineResponse timeline = new RunTimelineResponse(runId);
+        List<TestCaseTiming> timed = new ArrayList<>();
+        LocalDateTime origin = null;
+        for (TestCaseTiming row : rows) {
+            if (row.getStartTime() != null && row.getEndTime() != null) {
+                timed.add(row);
+                if (origin == null || row.getStartTime().isBefore(origin)) {
+                    origin = row.getStartTime();
+                }
+            }
+        }
+        if (timed.isEmpty()) {
+            return timeline;
         }
+
+        Map<String, ShardTimeline> shards = new TreeMap<>();
+        Map<String, List<long[]>> spans = new HashMap<>();
+        long wall = 0;
+        for (TestCaseTiming row : timed) {
+            long start = Duration.between(origin, row.getStartTime()).toMillis();
+            long end = Math.max(start, Duration.between(origin, row.getEndTime()).toMillis());
+            ShardTimeline shard = shards.computeIfAbsent(String.valueOf(row.getJobId()),
+                    jobId -> new ShardTimeline(jobId, Boolean.TRUE.equals(row.getQuarantined())));
+            shard.setStartMillis(shard.getTestCount() == 0 ? start : Math.min(shard.getStartMillis(), start));
+            shard.setEndMillis(Math.max(shard.getEndMillis(), end));
+            shard.setBusyMillis(shard.getBusyMillis() + end - start);
+            shard.setTestCount(shard.getTestCount() + 1);
+            spans.computeIfAbsent(shard.getJobId(), jobId -> new ArrayList<>()).add(new long[]{start, end});
+            wall = Math.max(wall, end);
+        }
+
+        // The quarantine job only sets the wall time when it is all there is
+        ShardTimeline critical = null;
+        for (ShardTimeline shard : shards.values()) {
+            if (critical == null || (critical.isQuarantine() && !shard.isQuarantine())
+                    || (critical.isQuarantine() == shard.isQuarantine() && shard.getEndMillis() > critical.getEndMillis())) {
+                critical = shard;
+            }
+        }
+        critical.setCritical(true);
+
+        String criticalJobId = critical.getJobId();
+        List<TestCaseResultResponse> path = timed.stream()
+                .filter(row -> criticalJobId.equals(String.valueOf(row.getJobId())))
+                .sorted(Comparator.comparing((TestCaseTiming row) -> Duration.between(row.getStartTime(), row.getEndTime()))
+                        .reversed())
+                .limit(pathLength)
+                .map(row -> convertToTimingResponse(runId, row))
+                .collect(Collectors.toList());
+
+        timeline.setStartTime(origin);
+        timeline.setWallMillis(wall);
+        timeline.setTestCount(timed.size());
+        timeline.setShards(new ArrayList<>(shards.values()));
+        timeline.setCriticalJobId(criticalJobId);
+        timeline.setCriticalIdleMillis(critical.getEndMillis() - coveredMillis(spans.get(criticalJobId)));
+        timeline.setCriticalPath(path);
+        return timeline;
+    }
+
+    // Time during which at least one of the spans was running
+    private static long coveredMillis(List<long[]> spans) {
+        spans.sort(Comparator.comparingLong(span -> span[0]));
+        long covered = 0;
+        long reach = Long.MIN_VALUE;
+        for (long[] span : spans) {
+            if (span[1] > reach) {
+                covered += span[1] - Math.max(span[0], reach);
+                reach = span[1];
+            }
+        }
+        return covered;
+    }
+
+    public List<TestCaseResultResponse> getRecentFailures(String testName, int days, int limit) {
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        return testCaseResultRepository
+                .findByTestNameAndStatusAndStartTimeAfterOrderByStartTimeDesc(
+                        testName, "FAILED", since, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))))
+                .stream()
+                .map(this::convertToCaseResponse)
+                .collect(Collectors.toList());
+    }
+
+    private int resolveShardCount(TestRunRequest testRunRequest) {
+        Integer requested = testRunRequest.getShardCount();
+        if (requested == null || requested < 1) {
+            return 1;
+        }
+        return Math.min(requested, maxShards);
     }
 
     private TestRunResponse convertToResponse(TestRunEntity entity) {
@@ -135,11 +407,57 @@ public class TestRunService {
         response.setStatus(entity.getStatus());
         response.setStartTime(entity.getStartTime());
         response.setEndTime(entity.getEndTime());
-        response.setReportUrl(entity.getReportUrl());
         response.setTotalTests(entity.getTotalTests());
         response.setPassedTests(entity.getPassedTests());
         response.setFailedTests(entity.getFailedTests());
         response.setMessage("Status: " + entity.getStatus());
         return response;
     }
+
+    private TestRunResponse convertToResponse(TestRunSummary summary) {
+        TestRunResponse response = new TestRunResponse();
+        response.setRunId(summary.getRunId());
+        response.setStatus(summary.getStatus());
+        response.setStartTime(summary.getStartTime());
+        response.setEndTime(summary.getEndTime());
+        response.setTotalTests(summary.getTotalTests());
+        response.setPassedTests(summary.getPassedTests());
+        response.setFailedTests(summary.getFailedTests());
+        response.setMessage("Status: " + summary.getStatus());
+        return response;
+    }
+
+    private static TestCaseResultResponse convertToTimingResponse(String runId, TestCaseTiming row) {
+        TestCaseResultResponse response = new TestCaseResultResponse();
+        response.setRunId(runId);
+        response.setJobId(row.getJobId());
+        response.setTestName(row.getTestName());
+        response.setStatus(row.getStatus());
+        response.setStartTime(row.getStartTime());
+        response.setEndTime(row.getEndTime());
+        response.setExecutionTime(row.getExecutionTime());
+        response.setQuarantined(row.getQuarantined());
+        return response;
+    }
+
+    private TestCaseResultResponse convertToCaseResponse(TestCaseResultSummary result) {
+        TestCaseResultResponse response = new TestCaseResultResponse();
+        response.setId(result.getId());
+        response.setRunId(result.getRunId());
+        response.setJobId(result.getJobId());
+        response.setTestName(result.getTestName());
+        response.setStatus(result.getStatus());
+        response.setStartTime(result.getStartTime());
+        response.setEndTime(result.getEndTime());
+        response.setExecutionTime(result.getExecutionTime());
+        response.setErrorMessage(result.getErrorMessage());
+        response.setScreenshotPath(result.getScreenshotPath());
+        response.setScreenshotHash(result.getScreenshotHash());
+        response.setBaselineMillis(result.getBaselineMillis());
+        response.setDurationZScore(result.getDurationZScore());
+        response.setDurationRegression(result.getDurationRegression());
+        response.setQuarantined(result.getQuarantined());
+        response.setArtifactRefs(ArtifactService.parseRefs(result.getArtifactRefs()));
+        return response;
+    }
 }
\ No newline at end of file
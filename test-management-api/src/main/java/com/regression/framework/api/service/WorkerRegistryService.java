@@ -0,0 +1,38 @@
+package com.regression.framework.api.service;
+
+import com.regression.framework.models.WorkerStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+public class WorkerRegistryService {
+
+    @Value("${workers.stale-after-seconds:30}")
+    private long staleAfterSeconds;
+
+    private final Map<String, WorkerStatus> workers = new ConcurrentHashMap<>();
+
+    public void update(WorkerStatus status) {
+        if (status.getWorkerId() != null) {
+            workers.put(status.getWorkerId(), status);
+        }
+    }
+
+    // Workers that stopped reporting are dropped so their capacity is not counted
+    public List<WorkerStatus> getActiveWorkers() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(staleAfterSeconds);
+        workers.values().removeIf(status -> status.getReportedAt() == null
+                || status.getReportedAt().isBefore(cutoff));
+
+        return workers.values().stream()
+                .sorted(Comparator.comparing(WorkerStatus::getWorkerId))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,241 @@
+package com.regression.framework.api.service;
+
+import com.regression.framework.models.TestResult;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResultWriteBehindBufferTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private RunCancellationPublisher runCancellationPublisher;
+    private TestImpactService testImpactService;
+    private ResultWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        runCancellationPublisher = mock(RunCancellationPublisher.class);
+        testImpactService = mock(TestImpactService.class);
+        // No run is over its fail-fast threshold unless a test says otherwise
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE test_runs SET status = 'ABORTED'"), anyList()))
+                .thenAnswer(invocation -> new int[((List<?>) invocation.getArgument(1)).size()]);
+        buffer = new ResultWriteBehindBuffer();
+        ReflectionTestUtils.setField(buffer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(buffer, "runCancellationPublisher", runCancellationPublisher);
+        ReflectionTestUtils.setField(buffer, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(buffer, "testImpactService", testImpactService);
+        ReflectionTestUtils.setField(buffer, "testDurationService", mock(TestDurationService.class));
+        ReflectionTestUtils.setField(buffer, "testFlakinessService", mock(TestFlakinessService.class));
+        ReflectionTestUtils.setField(buffer, "observationRegistry", ObservationRegistry.NOOP);
+        ReflectionTestUtils.setField(buffer, "maxPendingBatches", 1000);
+        ReflectionTestUtils.setField(buffer, "maxFlushAttempts", 2);
+        ReflectionTestUtils.setField(buffer, "retryDelayMillis", 0L);
+        ReflectionTestUtils.setField(buffer, "maxRetryDelayMillis", 0L);
+        buffer.init();
+    }
+
+    @Test
+    void coalescesBatchesOfARunIntoOneCounterUpdate() {
+        buffer.enqueue("run-1", "job-1", List.of(result("a", "PASSED"), result("b", "FAILED")),
+                2, 1, 1, "hash-b,", "b: boom; ", false, null, null, null, false);
+        buffer.enqueue("run-1", "job-1", List.of(result("c", "PASSED")),
+                1, 1, 0, "", "", true, "FAILED", "/reports/run-1", null, false);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> counters = counterCaptor();
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE test_runs SET total_tests"), counters.capture());
+        assertThat(counters.getValue()).hasSize(1);
+        assertThat(counters.getValue().get(0))
+                .containsExactly(3, 2, 1, 1, 1, "hash-b,", "b: boom; ", "run-1");
+
+        ArgumentCaptor<List<Object[]>> rows = counterCaptor();
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO test_case_results"), rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row[2]).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void keepsOneReportLinkPerShardJob() {
+        buffer.enqueue("run-1", "job-1_S0", List.of(), 0, 0, 0, "", "", true, "COMPLETED", null, null, false);
+        buffer.enqueue("run-1", "job-1_S1", List.of(), 0, 0, 0, "", "", false, null, "/reports/s1-old", null, false);
+        buffer.enqueue("run-1", "job-1_S0", List.of(), 0, 0, 0, "", "", false, null, "/reports/s0", null, false);
+        buffer.enqueue("run-1", "job-1_S1", List.of(), 0, 0, 0, "", "", false, null, "/reports/s1", null, false);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> reports = counterCaptor();
+        verify(jdbcTemplate).batchUpdate(startsWith("MERGE INTO test_run_reports"), reports.capture());
+        assertThat(reports.getValue()).extracting(args -> args[1] + "=" + args[2])
+                .containsExactly("job-1_S1=/reports/s1", "job-1_S0=/reports/s0");
+    }
+
+    @Test
+    void learnsCoverageFromTheComponentsEachTestReached() {
+        TestResult checkout = result("a", "PASSED");
+        checkout.setComponents(Set.of("checkout"));
+        TestResult cart = result("a", "PASSED");
+        cart.setComponents(Set.of("cart"));
+        buffer.enqueue("run-1", "job-1_S0", List.of(checkout, result("b", "PASSED")),
+                2, 2, 0, "", "", false, null, null, null, false);
+        buffer.enqueue("run-2", "job-2", List.of(cart), 1, 1, 0, "", "", false, null, null, null, false);
+
+        buffer.flush();
+
+        verify(testImpactService).recordCoverage(eq(Map.of("a", Set.of("cart", "checkout"))), any());
+    }
+
+    @Test
+    void boundsMergedFailureDetails() {
+        String details = "x".repeat(ResultWriteBehindBuffer.FAILURE_DETAILS_LIMIT - 10);
+        buffer.enqueue("run-1", "job-1", List.of(), 0, 0, 0, "", details, false, null, null, null, false);
+        buffer.enqueue("run-1", "job-1", List.of(), 0, 0, 0, "", details, false, null, null, null, false);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> counters = counterCaptor();
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE test_runs SET total_tests"), counters.capture());
+        assertThat((String) counters.getValue().get(0)[6]).hasSize(ResultWriteBehindBuffer.FAILURE_DETAILS_LIMIT);
+    }
+
+    @Test
+    void abortsARunOnceItsFailuresAcrossShardsReachTheThreshold() {
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE test_runs SET status = 'ABORTED'"), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> args = invocation.getArgument(1);
+                    return args.stream().mapToInt(row -> "run-1".equals(row[1]) ? 1 : 0).toArray();
+                });
+
+        buffer.enqueue("run-1", "job-1_S0", List.of(result("a", "FAILED")),
+                1, 0, 1, "", "a: boom; ", false, null, null, null, false);
+        buffer.enqueue("run-1", "job-1_S1", List.of(result("b", "FAILED")),
+                1, 0, 1, "", "b: boom; ", false, null, null, null, false);
+        buffer.enqueue("run-2", "job-2", List.of(result("c", "FAILED")),
+                1, 0, 1, "", "c: boom; ", false, null, null, null, false);
+        buffer.enqueue("run-3", "job-3", List.of(result("d", "PASSED")),
+                1, 1, 0, "", "", false, null, null, null, false);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> checked = counterCaptor();
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE test_runs SET status = 'ABORTED'"), checked.capture());
+        assertThat(checked.getValue()).extracting(args -> args[1]).containsExactlyInAnyOrder("run-1", "run-2");
+        verify(runCancellationPublisher).publish(eq("run-1"), anyString());
+        verify(runCancellationPublisher, never()).publish(eq("run-2"), anyString());
+    }
+
+    @Test
+    void parksAPoisonRunWhileHealthyRunsKeepFlushing() {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO test_case_results"), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> "bad-run".equals(row[0]))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return new int[rows.size()];
+        });
+
+        buffer.enqueue("bad-run", "job-1", List.of(result("a", "PASSED")),
+                1, 1, 0, "", "", false, null, null, null, false);
+        buffer.enqueue("good-run", "job-2", List.of(result("b", "PASSED")),
+                1, 1, 0, "", "", false, null, null, null, false);
+
+        buffer.flush();
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE test_runs SET total_tests"),
+                argThat((List<Object[]> args) -> args.size() == 1 && "good-run".equals(args.get(0)[8])));
+        assertThat(pending()).containsOnlyKeys("bad-run");
+
+        // Second and last attempt: the run is dropped instead of being retried forever
+        buffer.flush();
+        assertThat(pending()).isEmpty();
+        assertThat(ReflectionTestUtils.getField(buffer, "pendingBatches")).hasToString("0");
+
+        buffer.flush();
+        verify(jdbcTemplate, times(4)).batchUpdate(startsWith("INSERT INTO test_case_results"), anyList());
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE test_runs SET total_tests"),
+                argThat((List<Object[]> args) -> args.stream().anyMatch(row -> "bad-run".equals(row[8]))));
+    }
+
+    @Test
+    void keepsAFailedRunBackingOffUntilItsRetryIsDue() {
+        ReflectionTestUtils.setField(buffer, "retryDelayMillis", 60_000L);
+        ReflectionTestUtils.setField(buffer, "maxRetryDelayMillis", 60_000L);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO test_case_results"), anyList()))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+
+        buffer.enqueue("run-1", "job-1", List.of(result("a", "PASSED")),
+                1, 1, 0, "", "", false, null, null, null, false);
+        buffer.flush();
+        buffer.enqueue("run-1", "job-1", List.of(result("b", "PASSED")),
+                1, 1, 0, "", "", false, null, null, null, false);
+        buffer.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO test_case_results"), anyList());
+        assertThat(pending()).containsOnlyKeys("run-1");
+        assertThat(ReflectionTestUtils.getField(buffer, "pendingBatches")).hasToString("2");
+    }
+
+    @Test
+    void batchesArrivingDuringAFailedWriteStayNewest() {
+        AtomicBoolean failed = new AtomicBoolean();
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO test_case_results"), anyList())).thenAnswer(invocation -> {
+            if (failed.compareAndSet(false, true)) {
+                buffer.enqueue("run-1", "job-1", List.of(result("b", "PASSED")),
+                        1, 1, 0, "", "", false, null, "/reports/new", null, false);
+                throw new DataIntegrityViolationException("lock timeout");
+            }
+            return new int[((List<?>) invocation.getArgument(1)).size()];
+        });
+
+        buffer.enqueue("run-1", "job-1", List.of(result("a", "PASSED")),
+                1, 1, 0, "", "", false, null, "/reports/old", null, false);
+        buffer.flush();
+        buffer.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = counterCaptor();
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO test_case_results"), rows.capture());
+        assertThat(rows.getAllValues().get(1)).extracting(row -> row[2]).containsExactly("a", "b");
+        ArgumentCaptor<List<Object[]>> reports = counterCaptor();
+        verify(jdbcTemplate).batchUpdate(startsWith("MERGE INTO test_run_reports"), reports.capture());
+        assertThat(reports.getValue()).extracting(args -> args[2]).containsExactly("/reports/new");
+        assertThat(ReflectionTestUtils.getField(buffer, "pendingBatches")).hasToString("0");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> pending() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(buffer, "pending");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Object[]>> counterCaptor() {
+        return ArgumentCaptor.forClass((Class<List<Object[]>>) (Class<?>) List.class);
+    }
+
+    private static TestResult result(String name, String status) {
+        TestResult result = new TestResult(name, status);
+        result.setExecutionTime(100L);
+        return result;
+    }
+}
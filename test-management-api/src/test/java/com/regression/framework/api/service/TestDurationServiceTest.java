@@ -0,0 +1,119 @@
+package com.regression.framework.api.service;
+
+import com.regression.framework.api.entity.TestDurationEntity;
+import com.regression.framework.api.repository.TestDurationRepository;
+import com.regression.framework.models.TestExecutionJob;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TestDurationServiceTest {
+
+    @Test
+    void packsSlowestTestOntoLightestShard() {
+        List<List<TestDurationEntity>> shards = TestDurationService.packShards(List.of(
+                duration("e", 10.0), duration("a", 50.0), duration("c", 30.0),
+                duration("b", 40.0), duration("d", 20.0), duration("untimed", null)), 2);
+
+        assertThat(shards.get(0)).extracting(TestDurationEntity::getTestName).containsExactly("a", "d", "e");
+        assertThat(shards.get(1)).extracting(TestDurationEntity::getTestName).containsExactly("b", "c");
+    }
+
+    @Test
+    void leavesExtraShardsEmptyWhenThereAreFewerTestsThanShards() {
+        List<List<TestDurationEntity>> shards = TestDurationService.packShards(List.of(duration("a", 5.0)), 3);
+
+        assertThat(shards).hasSize(3);
+        assertThat(shards.get(0)).hasSize(1);
+        assertThat(shards.get(1)).isEmpty();
+        assertThat(shards.get(2)).isEmpty();
+    }
+
+    @Test
+    void listsKnownTestsThatHashToAShardButWerePackedElsewhere() {
+        List<TestDurationEntity> baselines = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            baselines.add(duration("test-" + i, 100.0 + i));
+        }
+        List<List<TestDurationEntity>> shards = TestDurationService.packShards(baselines, 3);
+
+        Set<String> seen = new HashSet<>();
+        for (int shard = 0; shard < 3; shard++) {
+            Set<String> own = new HashSet<>();
+            shards.get(shard).forEach(d -> own.add(d.getTestName()));
+            for (String name : TestDurationService.placedElsewhere(shards, shard)) {
+                assertThat(TestExecutionJob.hashShard(name, 3)).isEqualTo(shard);
+                assertThat(own).doesNotContain(name);
+                seen.add(name);
+            }
+        }
+        long misplaced = baselines.stream().filter(d -> !shards.get(TestExecutionJob.hashShard(d.getTestName(), 3))
+                .contains(d)).count();
+        assertThat(seen).hasSize((int) misplaced);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onlyPassingResultsFeedTheBaseline() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TestDurationService service = new TestDurationService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "alpha", 0.3);
+
+        service.recordDurations(List.of(row("a", "PASSED", 120L), row("b", "FAILED", 30000L),
+                row("c", "SKIPPED", 0L), row("d", "PASSED", null)), new Timestamp(0));
+
+        ArgumentCaptor<List<Object[]>> merges = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), merges.capture());
+        assertThat(merges.getValue()).extracting(args -> args[0]).containsExactly("a");
+    }
+
+    @Test
+    void onlyPassingResultsAreScoredForRegressions() {
+        TestDurationRepository repository = mock(TestDurationRepository.class);
+        TestDurationService service = new TestDurationService();
+        ReflectionTestUtils.setField(service, "testDurationRepository", repository);
+        ReflectionTestUtils.setField(service, "zThreshold", 3.0);
+        ReflectionTestUtils.setField(service, "minRatio", 1.5);
+        ReflectionTestUtils.setField(service, "minSamples", 5);
+        TestDurationEntity baseline = duration("a", 100.0);
+        baseline.setEwmaVariance(25.0);
+        baseline.setSamples(10);
+        when(repository.findByTestNameIn(anyCollection())).thenReturn(List.of(baseline));
+
+        CaseResultRow slowPass = row("a", "PASSED", 400L);
+        CaseResultRow timedOut = row("a", "FAILED", 30000L);
+        service.flagRegressions(List.of(slowPass, timedOut));
+
+        assertThat(slowPass.getDurationRegression()).isTrue();
+        assertThat(slowPass.getBaselineMillis()).isEqualTo(100L);
+        assertThat(timedOut.getBaselineMillis()).isNull();
+        assertThat(timedOut.getDurationRegression()).isNull();
+    }
+
+    private static TestDurationEntity duration(String testName, Double ewmaMillis) {
+        TestDurationEntity duration = new TestDurationEntity();
+        duration.setTestName(testName);
+        duration.setEwmaMillis(ewmaMillis);
+        return duration;
+    }
+
+    private static CaseResultRow row(String testName, String status, Long executionTime) {
+        return new CaseResultRow("run-1", "job-1", testName, status, null, null, executionTime,
+                null, null, null, null, null, false);
+    }
+}
@@ -0,0 +1,226 @@
+package com.regression.framework.api.service;
+
+import com.regression.framework.api.repository.TestCaseResultRepository;
+import com.regression.framework.api.repository.TestCaseResultSummary;
+import com.regression.framework.api.repository.TestCaseTiming;
+import com.regression.framework.api.repository.TestRunRepository;
+import com.regression.framework.api.repository.TestRunSummary;
+import com.regression.framework.models.RunTimelineResponse;
+import com.regression.framework.models.ShardTimeline;
+import com.regression.framework.models.TestCaseResultPage;
+import com.regression.framework.models.TestCaseResultResponse;
+import com.regression.framework.models.TestRunPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TestRunServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_000_000);
+
+    private TestRunRepository testRunRepository;
+    private TestCaseResultRepository testCaseResultRepository;
+    private TestRunService testRunService;
+
+    @BeforeEach
+    void setUp() {
+        testRunRepository = mock(TestRunRepository.class);
+        testRunService = new TestRunService();
+        ReflectionTestUtils.setField(testRunService, "testRunRepository", testRunRepository);
+        testCaseResultRepository = mock(TestCaseResultRepository.class);
+        ReflectionTestUtils.setField(testRunService, "testCaseResultRepository", testCaseResultRepository);
+    }
+
+    @Test
+    void cursorRoundTripsStartTimeAndRunId() {
+        String cursor = TestRunService.encodeCursor(START, "run|with|pipes");
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(TestRunService.decodeCursor(cursor)).containsExactly(START.toString(), "run|with|pipes");
+    }
+
+    @Test
+    void rejectsMalformedCursorsAsBadRequest() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2024-03-01T12:30".getBytes(StandardCharsets.UTF_8));
+        String badTime = Base64.getUrlEncoder().encodeToString("yesterday|run-1".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not base64!", noSeparator, badTime)) {
+            assertThatThrownBy(() -> TestRunService.decodeCursor(cursor))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                            .isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    void fetchesOneExtraRowToDecideWhetherThereIsANextPage() {
+        List<TestRunSummary> rows = summaries(3);
+        when(testRunRepository.findFirstPage(any(Pageable.class))).thenReturn(rows);
+
+        TestRunPage page = testRunService.getTestRunsPage(null, null, 2);
+
+        verify(testRunRepository).findFirstPage(PageRequest.of(0, 3));
+        assertThat(page.getRuns()).extracting("runId").containsExactly("run-0", "run-1");
+        assertThat(TestRunService.decodeCursor(page.getNextCursor()))
+                .containsExactly(rows.get(1).getStartTime().toString(), "run-1");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(testRunRepository.findFirstPageByStatus(eq("FAILED"), any(Pageable.class))).thenReturn(summaries(2));
+
+        TestRunPage page = testRunService.getTestRunsPage("FAILED", null, 2);
+
+        assertThat(page.getRuns()).hasSize(2);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void continuesAfterTheCursorPosition() {
+        when(testRunRepository.findPageAfter(any(), any(), any())).thenReturn(List.of());
+        String cursor = TestRunService.encodeCursor(START, "run-9");
+
+        testRunService.getTestRunsPage(null, cursor, 500);
+
+        verify(testRunRepository).findPageAfter(START, "run-9", PageRequest.of(0, 201));
+    }
+
+    @Test
+    void pagesRunResultsByIdAfterTheCursor() {
+        List<TestCaseResultSummary> firstRows = resultSummaries(11L, 12L, 13L);
+        List<TestCaseResultSummary> lastRows = resultSummaries(13L);
+        when(testCaseResultRepository.findByRunIdOrderByIdAsc(eq("run-1"), any(Pageable.class))).thenReturn(firstRows);
+
+        TestCaseResultPage first = testRunService.getTestCaseResultsPage("run-1", null, 2);
+
+        verify(testCaseResultRepository).findByRunIdOrderByIdAsc("run-1", PageRequest.of(0, 3));
+        assertThat(first.getResults()).extracting(TestCaseResultResponse::getId).containsExactly(11L, 12L);
+        assertThat(TestRunService.decodeResultCursor(first.getNextCursor())).isEqualTo(12L);
+
+        when(testCaseResultRepository.findByRunIdAndIdGreaterThanOrderByIdAsc(eq("run-1"), eq(12L), any(Pageable.class)))
+                .thenReturn(lastRows);
+        TestCaseResultPage last = testRunService.getTestCaseResultsPage("run-1", first.getNextCursor(), 2);
+
+        assertThat(last.getResults()).extracting(TestCaseResultResponse::getId).containsExactly(13L);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsMalformedResultCursorsAsBadRequest() {
+        String notAnId = Base64.getUrlEncoder().encodeToString("run-1".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not base64!", notAnId)) {
+            assertThatThrownBy(() -> TestRunService.decodeResultCursor(cursor))
+                    .isInstanceOf(ResponseStatusException.class);
+        }
+    }
+
+    @Test
+    void clampsTheRecentFailuresLimit() {
+        when(testCaseResultRepository.findByTestNameAndStatusAndStartTimeAfterOrderByStartTimeDesc(
+                any(), any(), any(), any())).thenReturn(List.of());
+
+        testRunService.getRecentFailures("login", 30, 0);
+        testRunService.getRecentFailures("login", 30, 1_000_000);
+
+        verify(testCaseResultRepository).findByTestNameAndStatusAndStartTimeAfterOrderByStartTimeDesc(
+                eq("login"), eq("FAILED"), any(), eq(PageRequest.of(0, 1)));
+        verify(testCaseResultRepository).findByTestNameAndStatusAndStartTimeAfterOrderByStartTimeDesc(
+                eq("login"), eq("FAILED"), any(), eq(PageRequest.of(0, 200)));
+    }
+
+    @Test
+    void timelineFindsTheGatingShardThatFinishedLast() {
+        List<TestCaseTiming> rows = List.of(
+                timing("job_S0", "a", 0, 4_000, false),
+                timing("job_S0", "b", 1_000, 3_000, false),
+                timing("job_S1", "c", 2_000, 5_000, false),
+                timing("job_S1", "d", 6_000, 7_000, false),
+                timing("job_S1", "e", 6_500, 10_000, false),
+                timing("job_Q", "flaky", 0, 20_000, true),
+                timing("job_S0", "untimed", -1, -1, false));
+
+        RunTimelineResponse timeline = TestRunService.buildTimeline("run-1", rows, 2);
+
+        assertThat(timeline.getStartTime()).isEqualTo(START);
+        assertThat(timeline.getWallMillis()).isEqualTo(20_000);
+        assertThat(timeline.getTestCount()).isEqualTo(6);
+        assertThat(timeline.getShards()).extracting(ShardTimeline::getJobId)
+                .containsExactly("job_Q", "job_S0", "job_S1");
+        ShardTimeline slowest = timeline.getShards().get(2);
+        assertThat(slowest.isCritical()).isTrue();
+        assertThat(slowest.getStartMillis()).isEqualTo(2_000);
+        assertThat(slowest.getEndMillis()).isEqualTo(10_000);
+        assertThat(slowest.getBusyMillis()).isEqualTo(7_500);
+        assertThat(timeline.getCriticalJobId()).isEqualTo("job_S1");
+        // Nothing ran on job_S1 before 2s or between 5s and 6s
+        assertThat(timeline.getCriticalIdleMillis()).isEqualTo(3_000);
+        assertThat(timeline.getCriticalPath()).extracting(TestCaseResultResponse::getTestName)
+                .containsExactly("e", "c");
+    }
+
+    @Test
+    void timelineOfARunWithoutTimedResultsIsEmpty() {
+        RunTimelineResponse timeline = TestRunService.buildTimeline("run-1",
+                List.of(timing("job_S0", "untimed", -1, -1, false)), 10);
+
+        assertThat(timeline.getShards()).isEmpty();
+        assertThat(timeline.getCriticalJobId()).isNull();
+        assertThat(timeline.getCriticalPath()).isEmpty();
+    }
+
+    // Negative offsets leave the times unset
+    private static TestCaseTiming timing(String jobId, String testName, long startMillis, long endMillis,
+                                         boolean quarantined) {
+        TestCaseTiming timing = mock(TestCaseTiming.class);
+        when(timing.getJobId()).thenReturn(jobId);
+        when(timing.getTestName()).thenReturn(testName);
+        when(timing.getStatus()).thenReturn("PASSED");
+        when(timing.getQuarantined()).thenReturn(quarantined);
+        if (startMillis >= 0) {
+            when(timing.getStartTime()).thenReturn(START.plusNanos(startMillis * 1_000_000));
+            when(timing.getEndTime()).thenReturn(START.plusNanos(endMillis * 1_000_000));
+            when(timing.getExecutionTime()).thenReturn(endMillis - startMillis);
+        }
+        return timing;
+    }
+
+    private static List<TestCaseResultSummary> resultSummaries(Long... ids) {
+        return Arrays.stream(ids).map(id -> {
+            TestCaseResultSummary summary = mock(TestCaseResultSummary.class);
+            when(summary.getId()).thenReturn(id);
+            when(summary.getRunId()).thenReturn("run-1");
+            return summary;
+        }).collect(Collectors.toList());
+    }
+
+    private static List<TestRunSummary> summaries(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            TestRunSummary summary = mock(TestRunSummary.class);
+            when(summary.getRunId()).thenReturn("run-" + i);
+            when(summary.getStartTime()).thenReturn(START.minusMinutes(i));
+            when(summary.getStatus()).thenReturn("COMPLETED");
+            return summary;
+        }).collect(Collectors.toList());
+    }
+}
@@ -2,8 +2,10 @@ package com.regression.framework.worker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TestRunnerWorkerApplication {
     public static void main(String[] args) {
         SpringApplication.run(TestRunnerWorkerApplication.class, args);
@@ -1,21 +1,131 @@
 package com.regression.framework.worker.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.regression.framework.messaging.ThresholdGZipPostProcessor;
+import com.regression.framework.messaging.WireFormats;
+import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.worker.service.Backoff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @Configuration
 public class RabbitMQConfig {
 
+    @Value("${messaging.wire-format:json}")
+    private String wireFormat;
+
+    @Value("${messaging.compression-threshold-bytes:16384}")
+    private int compressionThresholdBytes;
+
+    // Publishes and deliveries become spans; the trace context travels in the AMQP headers
+    @Value("${messaging.observation-enabled:true}")
+    private boolean observationEnabled;
+
+    @Value("${worker.retry.max-job-retries:3}")
+    private int maxJobRetries;
+
+    @Value("${worker.retry.job-initial-backoff-ms:5000}")
+    private long jobInitialBackoffMillis;
+
+    @Value("${worker.retry.job-max-backoff-ms:300000}")
+    private long jobMaxBackoffMillis;
+
+    // One queue per TestRunRequest.Priority lane. Rejected (poison) jobs are dead-lettered to
+    // test-execution-dlq for inspection.
     @Bean
     public Queue testExecutionQueue() {
-        return new Queue("test-execution-queue", true);
+        return laneQueue(TestRunRequest.Priority.PR);
+    }
+
+    @Bean
+    public Queue smokeExecutionQueue() {
+        return laneQueue(TestRunRequest.Priority.SMOKE);
+    }
+
+    @Bean
+    public Queue nightlyExecutionQueue() {
+        return laneQueue(TestRunRequest.Priority.NIGHTLY);
+    }
+
+    private static Queue laneQueue(TestRunRequest.Priority priority) {
+        return QueueBuilder.durable(priority.getQueueName())
+                .deadLetterExchange("test-execution-dlx")
+                .build();
+    }
+
+    @Bean
+    public DirectExchange testExecutionDeadLetterExchange() {
+        return new DirectExchange("test-execution-dlx");
+    }
+
+    @Bean
+    public Queue testExecutionDeadLetterQueue() {
+        return QueueBuilder.durable("test-execution-dlq").build();
+    }
+
+    @Bean
+    public Declarables testExecutionDeadLetterBindings() {
+        return new Declarables(Arrays.stream(TestRunRequest.Priority.values())
+                .map(priority -> BindingBuilder.bind(testExecutionDeadLetterQueue())
+                        .to(testExecutionDeadLetterExchange())
+                        .with(priority.getQueueName()))
+                .collect(Collectors.toList()));
+    }
+
+    // One delay queue per job-retry backoff tier, each with a queue-level TTL, so a message never waits
+    // behind one with a longer delay. Retries are published through the tier's fanout with the lane's
+    // queue name as routing key; on expiry the default exchange routes them back to that lane. Tiers are
+    // named by their delay, so changing the backoff settings declares new queues instead of clashing.
+    @Bean
+    public Declarables testExecutionRetryTiers() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (long delay : retryTierDelays()) {
+            String name = retryTierName(delay);
+            FanoutExchange exchange = new FanoutExchange(name);
+            Queue queue = QueueBuilder.durable(name)
+                    .ttl((int) delay)
+                    .deadLetterExchange("")
+                    .build();
+            declarables.add(exchange);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange));
+        }
+        return new Declarables(declarables);
+    }
+
+    private Set<Long> retryTierDelays() {
+        Set<Long> delays = new TreeSet<>();
+        for (int attempt = 1; attempt <= maxJobRetries; attempt++) {
+            delays.add(Backoff.tierDelayMillis(jobInitialBackoffMillis, jobMaxBackoffMillis, attempt));
+        }
+        return delays;
+    }
+
+    public static String retryTierName(long delayMillis) {
+        return "test-execution-retry." + delayMillis + "ms";
     }
 
     @Bean
@@ -23,17 +133,52 @@ public class RabbitMQConfig {
         return new Queue("test-results-queue", true);
     }
 
+    // Capacity heartbeats are only useful while fresh, so they expire instead of piling up
+    @Bean
+    public Queue workerStatusQueue() {
+        return QueueBuilder.nonDurable("worker-status-queue").ttl(30000).build();
+    }
+
     @Bean
-    public Jackson2JsonMessageConverter jsonMessageConverter() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        return new Jackson2JsonMessageConverter(objectMapper);
+    public FanoutExchange runCancellationExchange() {
+        return new FanoutExchange("test-run-cancellations");
+    }
+
+    // Per-worker, auto-deleted queue: every worker hears every cancellation
+    @Bean
+    public Queue runCancellationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding runCancellationBinding() {
+        return BindingBuilder.bind(runCancellationQueue()).to(runCancellationExchange());
+    }
+
+    // Reads JSON or Smile by content type; writes messaging.wire-format. Switch writers to smile only
+    // after every consumer runs a build that can read it.
+    @Bean
+    public MessageConverter messageConverter() {
+        return WireFormats.messageConverter(wireFormat);
     }
 
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(messageConverter());
+        rabbitTemplate.setBeforePublishPostProcessors(new ThresholdGZipPostProcessor(compressionThresholdBytes));
+        rabbitTemplate.setObservationEnabled(observationEnabled);
         return rabbitTemplate;
     }
-}
\ No newline at end of file
+
+    // Boot's listener settings plus transparent decompression of gzipped payloads
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAfterReceivePostProcessors(new DelegatingDecompressingPostProcessor());
+        factory.setObservationEnabled(observationEnabled);
+        return factory;
+    }
+}
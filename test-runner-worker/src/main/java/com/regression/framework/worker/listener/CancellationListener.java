@@ -0,0 +1,20 @@
+package com.regression.framework.worker.listener;
+
+import com.regression.framework.models.RunCancellation;
+import com.regression.framework.worker.service.CancellationRegistry;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CancellationListener {
+
+    @Autowired
+    private CancellationRegistry cancellationRegistry;
+
+    // Each worker has its own anonymous queue bound to the cancellation fanout
+    @RabbitListener(queues = "#{runCancellationQueue.name}", concurrency = "1")
+    public void receiveCancellation(RunCancellation cancellation) {
+        cancellationRegistry.cancel(cancellation.getRunId(), cancellation.getReason());
+    }
+}
@@ -1,45 +1,305 @@
 package com.regression.framework.worker.listener;
 
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
 import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.worker.config.RabbitMQConfig;
+import com.regression.framework.worker.service.Backoff;
+import com.regression.framework.worker.service.CancellationRegistry;
 import com.regression.framework.worker.service.TestExecutor;
+import com.regression.framework.worker.service.WebDriverPool;
+import com.regression.framework.worker.service.WorkerCapacity;
+import com.regression.framework.worker.service.WorkerMetrics;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.micrometer.RabbitListenerObservation;
+import org.springframework.amqp.rabbit.support.micrometer.RabbitMessageReceiverContext;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// One poller thread per job slot (worker.capacity.max-concurrent-jobs), so the worker never holds more
+// jobs than it can run. Each free slot fetches a single job with basic.get from the lanes in weighted
+// order, and acks it only once the job is done; an unacked job goes back to the broker if the worker dies.
 @Component
-public class WorkerListener {
+public class WorkerListener implements SmartLifecycle {
 
     private static final Logger logger = LoggerFactory.getLogger(WorkerListener.class);
 
+    // Matches Spring's default per-phase lifecycle shutdown timeout
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
+    private enum Outcome { ACK, REJECT, REQUEUE }
+
     @Autowired
     private TestExecutor testExecutor;
 
-    @RabbitListener(queues = "test-execution-queue")
-    public void receiveTestExecutionJob(TestExecutionJob job) {
-        logger.info("Received test execution job: {}", job.getJobId());
+    @Autowired
+    private WorkerCapacity workerCapacity;
+
+    @Autowired
+    private WebDriverPool webDriverPool;
+
+    @Autowired
+    private CancellationRegistry cancellationRegistry;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Autowired
+    private MessageConverter messageConverter;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private WorkerMetrics metrics;
+
+    @Value("${messaging.observation-enabled:true}")
+    private boolean observationEnabled;
+
+    @Value("${worker.retry.max-job-retries:3}")
+    private int maxJobRetries;
+
+    @Value("${worker.retry.job-initial-backoff-ms:5000}")
+    private long jobInitialBackoffMillis;
+
+    @Value("${worker.retry.job-max-backoff-ms:300000}")
+    private long jobMaxBackoffMillis;
+
+    // How long an idle slot waits before polling the lanes again
+    @Value("${worker.lanes.poll-interval-ms:1000}")
+    private long pollIntervalMillis;
+
+    // Relative share of fetches each lane gets while all of them have work
+    @Value("${worker.lanes.smoke.weight:3}")
+    private int smokeWeight;
+
+    @Value("${worker.lanes.pr.weight:2}")
+    private int prWeight;
+
+    @Value("${worker.lanes.nightly.weight:1}")
+    private int nightlyWeight;
+
+    private final DefaultMessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+    private final DelegatingDecompressingPostProcessor decompressor = new DelegatingDecompressingPostProcessor();
+    private final Map<TestRunRequest.Priority, Integer> weights = new EnumMap<>(TestRunRequest.Priority.class);
+    private final Map<TestRunRequest.Priority, Integer> credits = new EnumMap<>(TestRunRequest.Priority.class);
+    private final List<Thread> slots = new ArrayList<>();
+    private final Object idle = new Object();
+    private volatile boolean running;
+
+    @Override
+    public synchronized void start() {
+        weights.put(TestRunRequest.Priority.SMOKE, Math.max(1, smokeWeight));
+        weights.put(TestRunRequest.Priority.PR, Math.max(1, prWeight));
+        weights.put(TestRunRequest.Priority.NIGHTLY, Math.max(1, nightlyWeight));
+        weights.keySet().forEach(lane -> credits.put(lane, 0));
+
+        running = true;
+        for (int slot = 0; slot < workerCapacity.getMaxConcurrentJobs(); slot++) {
+            Thread thread = new Thread(this::pollLoop, "job-slot-" + slot);
+            thread.start();
+            slots.add(thread);
+        }
+        logger.info("Polling lanes {} with {} job slot(s)", weights, slots.size());
+    }
+
+    // Idle slots stop right away; running jobs get until the lifecycle timeout to finish, after which
+    // their unacked messages are redelivered once the connection closes
+    @Override
+    public synchronized void stop() {
+        running = false;
+        synchronized (idle) {
+            idle.notifyAll();
+        }
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MILLIS;
+        for (Thread slot : slots) {
+            try {
+                slot.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        slots.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void pollLoop() {
+        while (running) {
+            boolean ran = false;
+            try {
+                ran = pollOnce();
+            } catch (Exception e) {
+                logger.warn("Job slot {} failed to poll: {}", Thread.currentThread().getName(), e.getMessage());
+            }
+            if (!ran) {
+                synchronized (idle) {
+                    try {
+                        if (running) {
+                            idle.wait(pollIntervalMillis);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean pollOnce() throws Exception {
+        for (TestRunRequest.Priority lane : laneOrder()) {
+            if (!workerCapacity.tryAcquire(lane)) {
+                continue;
+            }
+            try {
+                if (fetchAndRun(lane)) {
+                    return true;
+                }
+            } finally {
+                workerCapacity.release(lane);
+            }
+        }
+        return false;
+    }
+
+    // Smooth weighted round robin: the lane with the most credit is polled first, and only a lane that
+    // actually yields a job pays for it. Credit is capped so a lane that sat empty can't monopolise the
+    // slots once work arrives.
+    private synchronized List<TestRunRequest.Priority> laneOrder() {
+        List<TestRunRequest.Priority> order = new ArrayList<>(weights.keySet());
+        order.sort(Comparator.comparingInt((TestRunRequest.Priority lane) -> credits.get(lane) + weights.get(lane))
+                .reversed());
+        return order;
+    }
+
+    private synchronized void charge(TestRunRequest.Priority lane) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        for (TestRunRequest.Priority each : weights.keySet()) {
+            int credit = credits.get(each) + weights.get(each) - (each == lane ? total : 0);
+            credits.put(each, Math.max(-total, Math.min(total, credit)));
+        }
+    }
 
+    private boolean fetchAndRun(TestRunRequest.Priority lane) throws Exception {
+        Connection connection = connectionFactory.createConnection();
+        try (Channel channel = connection.createChannel(false)) {
+            GetResponse response = channel.basicGet(lane.getQueueName(), false);
+            if (response == null) {
+                return false;
+            }
+            charge(lane);
+
+            long deliveryTag = response.getEnvelope().getDeliveryTag();
+            MessageProperties properties = propertiesConverter.toMessageProperties(
+                    response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+            properties.setConsumerQueue(lane.getQueueName());
+            Message message = new Message(response.getBody(), properties);
+
+            Outcome outcome = RabbitListenerObservation.LISTENER_OBSERVATION.observation(null,
+                            RabbitListenerObservation.DefaultRabbitListenerObservationConvention.INSTANCE,
+                            () -> new RabbitMessageReceiverContext(message, Thread.currentThread().getName()),
+                            observationEnabled ? observationRegistry : ObservationRegistry.NOOP)
+                    .observe(() -> handle(message, lane));
+
+            switch (outcome) {
+                case ACK -> channel.basicAck(deliveryTag, false);
+                // The lane queue dead-letters rejected jobs to test-execution-dlq
+                case REJECT -> channel.basicReject(deliveryTag, false);
+                case REQUEUE -> channel.basicReject(deliveryTag, true);
+            }
+            return true;
+        }
+    }
+
+    private Outcome handle(Message message, TestRunRequest.Priority lane) {
+        TestExecutionJob job;
         try {
+            Message decompressed = decompressor.postProcessMessage(message);
+            decompressed.getMessageProperties().setInferredArgumentType(TestExecutionJob.class);
+            job = (TestExecutionJob) messageConverter.fromMessage(decompressed);
+        } catch (Exception e) {
+            logger.error("Unreadable job on the {} lane, dead-lettering it", lane, e);
+            return Outcome.REJECT;
+        }
+        return receiveTestExecutionJob(job, lane);
+    }
+
+    private Outcome receiveTestExecutionJob(TestExecutionJob job, TestRunRequest.Priority lane) {
+        logger.info("Received test execution job: {} ({} lane)", job.getJobId(), lane);
+
+        // Still-queued jobs of a stopped run only need to close their shard
+        if (cancellationRegistry.isCancelled(job.getRunId())) {
+            logger.info("Skipping job {}: run {} was cancelled", job.getJobId(), job.getRunId());
+            job.setStatus("CANCELLED");
+            testExecutor.sendTestResults(job, null);
+            return Outcome.ACK;
+        }
+
+        metrics.recordQueueWait(job, lane);
+        // Web jobs hold a browser from admission on; failing to get one counts as a job failure and goes
+        // through the retry tiers rather than straight back onto the lane
+        boolean needsBrowser = job.getTestRunRequest().getExecutionType() != TestRunRequest.ExecutionType.API;
+        try (WebDriverPool.Reservation browser = needsBrowser ? webDriverPool.reserve(job) : null) {
             testExecutor.executeTests(job);
             logger.info("Successfully executed job: {}", job.getJobId());
+            return Outcome.ACK;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.REQUEUE;
         } catch (Exception e) {
             logger.error("Failed to execute job: {}", job.getJobId(), e);
-            // Handle retry logic here
-            handleFailedJob(job, e);
+            return handleFailedJob(job, lane);
         }
     }
 
-    private void handleFailedJob(TestExecutionJob job, Exception e) {
-        if (job.getRetryCount() < job.getTestRunRequest().getRetryCount()) {
+    // Job-level retries wait in the delay queue of their backoff tier; individual test failures are
+    // retried inside the job by the engine
+    private Outcome handleFailedJob(TestExecutionJob job, TestRunRequest.Priority lane) {
+        if (job.getRetryCount() < maxJobRetries) {
             job.setRetryCount(job.getRetryCount() + 1);
-            logger.info("Retrying job: {} (attempt {})", job.getJobId(), job.getRetryCount());
-            // In a real implementation, you'd re-queue the job
-        } else {
-            logger.error("Job {} failed after {} retries", job.getJobId(), job.getRetryCount());
-            job.setStatus("FAILED");
-            // Send failure results
-            testExecutor.sendTestResults(job, null);
+            long delay = Backoff.tierDelayMillis(jobInitialBackoffMillis, jobMaxBackoffMillis, job.getRetryCount());
+            try {
+                // The routing key survives the delay queue and brings the job back to its own lane
+                rabbitTemplate.convertAndSend(RabbitMQConfig.retryTierName(delay), lane.getQueueName(), job);
+                logger.info("Retrying job: {} in {} ms (attempt {})", job.getJobId(), delay, job.getRetryCount());
+                return Outcome.ACK;
+            } catch (Exception publishError) {
+                logger.error("Failed to schedule retry for job {}", job.getJobId(), publishError);
+            }
         }
+
+        logger.error("Job {} failed after {} retries", job.getJobId(), job.getRetryCount());
+        job.setStatus("FAILED");
+        // Close the shard on the API, then let the broker dead-letter the message to test-execution-dlq
+        testExecutor.sendTestResults(job, null);
+        return Outcome.REJECT;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package com.regression.framework.worker.service;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpConnectionParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// One keep-alive connection pool shared by every REST-Assured call on this worker.
+// REST-Assured 5 configures HttpClient 4 through its params API, hence the AbstractHttpClient flavour.
+@Component
+@SuppressWarnings("deprecation")
+public class ApiClientPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiClientPool.class);
+
+    private static final Filter RELEASE_CONNECTION = (request, response, context) -> {
+        Response result = context.next(request, response);
+        result.asByteArray();
+        return result;
+    };
+
+    @Value("${worker.api-client.max-total:256}")
+    private int maxTotal;
+
+    // Also caps a run's API concurrency per target: tests beyond it would only queue inside the pool
+    @Value("${worker.api-client.max-per-host:64}")
+    private int maxPerHost;
+
+    @Value("${worker.api-client.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    @Value("${worker.api-client.connect-timeout-ms:5000}")
+    private int connectTimeoutMillis;
+
+    @Value("${worker.api-client.socket-timeout-ms:30000}")
+    private int socketTimeoutMillis;
+
+    private PoolingClientConnectionManager connectionManager;
+    private DefaultHttpClient httpClient;
+    private RestAssuredConfig config;
+
+    @PostConstruct
+    public void init() {
+        connectionManager = new PoolingClientConnectionManager(SchemeRegistryFactory.createSystemDefault(),
+                keepAliveSeconds, TimeUnit.SECONDS, new SystemDefaultDnsResolver());
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerHost);
+
+        httpClient = new DefaultHttpClient(connectionManager);
+        HttpConnectionParams.setConnectionTimeout(httpClient.getParams(), connectTimeoutMillis);
+        HttpConnectionParams.setSoTimeout(httpClient.getParams(), socketTimeoutMillis);
+
+        // Honour the server's Keep-Alive hint, but never hold a connection longer than configured
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+        httpClient.setKeepAliveStrategy((response, context) -> {
+            long serverHint = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverHint > 0 ? Math.min(serverHint, keepAliveMillis) : keepAliveMillis;
+        });
+
+        config = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> httpClient));
+        logger.info("API client pool: {} connection(s) total, {} per host", maxTotal, maxPerHost);
+    }
+
+    // A fresh request spec on top of the shared client; specs are not thread-safe, clients are.
+    // The connection only goes back to the pool once the body is read, and a test that just checks
+    // the status never reads it, so every response is buffered up front.
+    public RequestSpecification request() {
+        return RestAssured.given().config(config).filter(RELEASE_CONNECTION);
+    }
+
+    public int getMaxPerHost() { return maxPerHost; }
+
+    @Scheduled(fixedDelayString = "${worker.api-client.eviction-interval-ms:10000}")
+    public void evictIdleConnections() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(keepAliveSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionManager.shutdown();
+    }
+}
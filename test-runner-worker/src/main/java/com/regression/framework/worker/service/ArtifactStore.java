@@ -0,0 +1,145 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestResult;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Claim-check store for large result fields: artifacts/<ab>/<sha256>.gz on a directory the API can read too
+@Component
+public class ArtifactStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactStore.class);
+
+    @Value("${worker.artifacts.dir:../artifacts}")
+    private String rootDir;
+
+    // Fields up to this size stay inline in the result message
+    @Value("${worker.artifacts.inline-limit-bytes:2048}")
+    private int inlineLimitBytes;
+
+    @Value("${worker.artifacts.max-age-days:14}")
+    private long maxAgeDays;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(rootDir);
+        Files.createDirectories(root);
+    }
+
+    // Returns the copy to publish: large fields replaced by artifactRefs; the original is left untouched
+    public TestResult offload(TestResult result) {
+        TestResult message = new TestResult(result);
+        Map<String, String> refs = new HashMap<>();
+        offloadField("stackTrace", message::getStackTrace, message::setStackTrace, refs);
+        offloadField("browserLogs", message::getBrowserLogs, message::setBrowserLogs, refs);
+        offloadField("networkLogs", message::getNetworkLogs, message::setNetworkLogs, refs);
+        offloadField("screenshotBase64", message::getScreenshotBase64, message::setScreenshotBase64, refs);
+        if (!refs.isEmpty()) {
+            message.setArtifactRefs(refs);
+        }
+        return message;
+    }
+
+    private void offloadField(String field, Supplier<String> getter, Consumer<String> setter, Map<String, String> refs) {
+        String value = getter.get();
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= inlineLimitBytes) {
+            return;
+        }
+
+        String key = store(bytes);
+        if (key != null) {
+            refs.put(field, key);
+            setter.accept(null);
+        }
+    }
+
+    // Content-addressed, so identical stack traces across tests and runs are stored once. A hit refreshes
+    // the file's age, or eviction would delete an artifact a fresh result still points at.
+    private String store(byte[] content) {
+        String key = sha256(content);
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            try {
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                return key;
+            } catch (IOException e) {
+                // Evicted in between, or not writable: store it again below
+                logger.debug("Failed to refresh artifact timestamp {}: {}", key, e.getMessage());
+            }
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "artifact", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(content);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return key;
+        } catch (IOException e) {
+            // Fall back to sending the field inline rather than losing it
+            logger.warn("Failed to store artifact {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private Path resolve(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key + ".gz");
+    }
+
+    @Scheduled(fixedDelayString = "${worker.artifacts.eviction-interval-ms:3600000}")
+    public void evict() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(maxAgeDays));
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.filter(path -> path.toString().endsWith(".gz")).forEach(path -> {
+                try {
+                    if (Files.getLastModifiedTime(path).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Failed to evict artifact {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to scan artifact store: {}", e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
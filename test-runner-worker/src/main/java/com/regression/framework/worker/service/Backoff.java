@@ -0,0 +1,22 @@
+package com.regression.framework.worker.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Exponential backoff, capped; in-process retries add "equal jitter" (half the delay fixed, half random)
+public final class Backoff {
+
+    private Backoff() {}
+
+    // Without jitter: broker delay queues have one fixed TTL per tier
+    public static long tierDelayMillis(long initialMillis, long maxMillis, int attempt) {
+        long exponential = initialMillis << Math.min(Math.max(attempt - 1, 0), 20);
+        return Math.min(Math.max(exponential, 1), maxMillis);
+    }
+
+    // attempt is 1-based: the first retry waits around initialMillis
+    public static long delayMillis(long initialMillis, long maxMillis, int attempt) {
+        long capped = tierDelayMillis(initialMillis, maxMillis, attempt);
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(capped - half + 1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestExecutionJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Cancelled runs seen by this worker and the tokens of jobs currently running for them
+@Component
+public class CancellationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CancellationRegistry.class);
+
+    // Remembered long enough to skip jobs of a cancelled run that are still queued
+    @Value("${worker.cancellation.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, Long> cancelledRuns = new ConcurrentHashMap<>();
+    private final Map<String, Set<CancellationToken>> activeTokens = new ConcurrentHashMap<>();
+
+    public CancellationToken register(TestExecutionJob job) {
+        CancellationToken token = new CancellationToken(job.getRunId());
+        activeTokens.computeIfAbsent(job.getRunId(), runId -> ConcurrentHashMap.newKeySet()).add(token);
+
+        // Checked after registering, so a concurrent cancel() either sees the token or is seen here
+        if (cancelledRuns.containsKey(job.getRunId())) {
+            token.cancel("Run was cancelled");
+        }
+        return token;
+    }
+
+    public void unregister(CancellationToken token) {
+        activeTokens.computeIfPresent(token.getRunId(), (runId, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    public boolean isCancelled(String runId) {
+        return cancelledRuns.containsKey(runId);
+    }
+
+    public void cancel(String runId, String reason) {
+        cancelledRuns.put(runId, System.currentTimeMillis());
+        Set<CancellationToken> tokens = activeTokens.get(runId);
+        int running = tokens != null ? tokens.size() : 0;
+        if (tokens != null) {
+            tokens.forEach(token -> token.cancel(reason));
+        }
+        logger.info("Run {} cancelled ({}); signalled {} running job(s)", runId, reason, running);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void prune() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        cancelledRuns.values().removeIf(cancelledAt -> cancelledAt < cutoff);
+    }
+}
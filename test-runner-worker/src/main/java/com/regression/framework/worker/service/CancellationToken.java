@@ -0,0 +1,58 @@
+package com.regression.framework.worker.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Cooperative cancellation for one job: checked between tests and inside long waits
+public class CancellationToken {
+
+    private final String runId;
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private volatile String reason;
+    private volatile boolean aborted;
+
+    CancellationToken(String runId) {
+        this.runId = runId;
+    }
+
+    public String getRunId() { return runId; }
+
+    public String getReason() { return reason; }
+
+    public boolean isCancelled() {
+        return cancelled.getCount() == 0;
+    }
+
+    // True when this job reached the fail-fast threshold by itself rather than being stopped by the API
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException(reason);
+        }
+    }
+
+    // Sleeps like Thread.sleep, but wakes up and throws as soon as the job is cancelled
+    public void sleep(long millis) throws InterruptedException {
+        if (cancelled.await(millis, TimeUnit.MILLISECONDS)) {
+            throw new CancellationException(reason);
+        }
+    }
+
+    public synchronized void abort(String abortReason) {
+        if (!isCancelled()) {
+            aborted = true;
+            cancel(abortReason);
+        }
+    }
+
+    synchronized void cancel(String cancelReason) {
+        if (!isCancelled()) {
+            reason = cancelReason;
+            cancelled.countDown();
+        }
+    }
+}
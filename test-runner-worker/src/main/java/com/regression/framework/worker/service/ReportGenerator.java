@@ -6,74 +6,30 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class ReportGenerator {
 
     private static final Logger logger = LoggerFactory.getLogger(ReportGenerator.class);
     private static final String REPORT_DIR = "reports";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
 
-    public String generateReport(TestExecutionJob job) {
-        createReportDirectory();
-
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String reportFileName = String.format("test_report_%s_%s.html", job.getRunId(), timestamp);
-        String reportPath = REPORT_DIR + File.separator + reportFileName;
-
-        try (FileWriter writer = new FileWriter(reportPath)) {
-            String htmlReport = generateHtmlReport(job);
-            writer.write(htmlReport);
-            logger.info("Generated HTML report: {}", reportPath);
-
-            // Also generate CSV and JUnit reports
-            generateCsvReport(job, timestamp);
-            generateJUnitReport(job, timestamp);
-
-        } catch (IOException e) {
-            logger.error("Failed to generate HTML report", e);
-            return "Error generating report";
-        }
-
-        return reportPath;
-    }
-
-    private String generateHtmlReport(TestExecutionJob job) {
-        List<TestResult> testResults = job.getTestResults();
-        int totalTests = testResults != null ? testResults.size() : 0;
-        long passedTests = testResults != null ? testResults.stream().filter(r -> "PASSED".equals(r.getStatus())).count() : 0;
-        long failedTests = testResults != null ? testResults.stream().filter(r -> "FAILED".equals(r.getStatus())).count() : 0;
-        double passPercentage = totalTests > 0 ? (passedTests * 100.0) / totalTests : 0;
-
-        StringBuilder testResultsHtml = new StringBuilder();
-        if (testResults != null) {
-            for (TestResult result : testResults) {
-                String statusColor = "PASSED".equals(result.getStatus()) ? "green" : "red";
-                testResultsHtml.append(String.format("""
-                    <tr>
-                        <td>%s</td>
-                        <td style="color: %s; font-weight: bold;">%s</td>
-                        <td>%s</td>
-                        <td>%d ms</td>
-                        <td>%s</td>
-                    </tr>
-                    """,
-                        result.getTestName(),
-                        statusColor,
-                        result.getStatus(),
-                        result.getStartTime(),
-                        result.getExecutionTime(),
-                        result.getErrorMessage() != null ? result.getErrorMessage() : ""
-                ));
-            }
-        }
-
-        return String.format("""
+    // Static page chrome is written once; only the rows are produced per result
+    private static final String HTML_HEAD = """
             <!DOCTYPE html>
             <html lang="en">
             <head>
@@ -96,7 +52,7 @@ public class ReportGenerator {
                         box-shadow: 0 2px 10px rgba(0,0,0,0.1); 
                     }
                     .header { 
-                        background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); 
+                        background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); 
                         color: white; 
                         padding: 30px; 
                         border-radius: 8px; 
@@ -143,7 +99,7 @@ public class ReportGenerator {
                         color: #333; 
                     }
                     .results-table { 
-                        width: 100%%; 
+                        width: 100%; 
                         border-collapse: collapse; 
                         margin-top: 20px; 
                     }
@@ -161,6 +117,38 @@ public class ReportGenerator {
                     .results-table tr:hover { 
                         background-color: #f5f5f5; 
                     }
+                    .timeline { 
+                        margin-bottom: 30px; 
+                    }
+                    .lane { 
+                        display: flex; 
+                        align-items: center; 
+                        margin: 2px 0; 
+                    }
+                    .lane-name { 
+                        width: 220px; 
+                        font-size: 11px; 
+                        color: #666; 
+                        overflow: hidden; 
+                        white-space: nowrap; 
+                        text-overflow: ellipsis; 
+                    }
+                    .track { 
+                        position: relative; 
+                        flex: 1; 
+                        height: 16px; 
+                        background: #eceff1; 
+                    }
+                    .bar { 
+                        position: absolute; 
+                        top: 0; 
+                        height: 100%; 
+                        min-width: 1px; 
+                    }
+                    .bar.passed { background: #2ecc71; }
+                    .bar.failed { background: #e74c3c; }
+                    .bar.skipped { background: #95a5a6; }
+                    .bar.critical { box-shadow: inset 0 0 0 2px #2c3e50; }
                     .timestamp { 
                         text-align: center; 
                         color: #666; 
@@ -176,6 +164,9 @@ public class ReportGenerator {
                         <p>Automated Regression Test Suite Framework</p>
                     </div>
                     
+            """;
+
+    private static final String HTML_SUMMARY = """
                     <div class="summary-cards">
                         <div class="card total">
                             <h3>Total Tests</h3>
@@ -204,8 +195,12 @@ public class ReportGenerator {
                         <p><strong>Execution Type:</strong> %s</p>
                         <p><strong>Browser:</strong> %s</p>
                         <p><strong>Retry Count:</strong> %d</p>
+                        <p><strong>Duration Regressions:</strong> %d (slower than the API's baseline threshold)</p>
                     </div>
                     
+            """;
+
+    private static final String HTML_RESULTS_HEAD = """
                     <h2>📊 Detailed Test Results</h2>
                     <table class="results-table">
                         <thead>
@@ -218,7 +213,9 @@ public class ReportGenerator {
                             </tr>
                         </thead>
                         <tbody>
-                            %s
+            """;
+
+    private static final String HTML_FOOTER = """
                         </tbody>
                     </table>
                     
@@ -228,79 +225,253 @@ public class ReportGenerator {
                 </div>
             </body>
             </html>
-            """,
-                totalTests, passedTests, failedTests, passPercentage,
-                job.getRunId(),
-                job.getJobId(),
-                "COMPLETED".equals(job.getStatus()) ? "green" : "red",
-                job.getStatus(),
-                job.getTestRunRequest().getTestSuiteName(),
-                job.getTestRunRequest().getExecutionType(),
-                job.getTestRunRequest().getBrowserType(),
-                job.getRetryCount(),
-                testResultsHtml.toString(),
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-        );
-    }
+            """;
+
+    public String generateReport(TestExecutionJob job) {
+        createReportDirectory();
+
+        // Named after the job, not the run: shards of one run can finish on this worker in the same second
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String reportFileName = String.format("test_report_%s_%s.html", job.getJobId(), timestamp);
+        String reportPath = REPORT_DIR + File.separator + reportFileName;
+        Path csvPath = Paths.get(REPORT_DIR, String.format("test_report_%s_%s.csv", job.getJobId(), timestamp));
+        Path junitPath = Paths.get(REPORT_DIR, String.format("TEST-%s-%s.xml", job.getJobId(), timestamp));
 
-    private void generateCsvReport(TestExecutionJob job, String timestamp) {
-        String csvFileName = String.format("test_report_%s_%s.csv", job.getRunId(), timestamp);
-        String csvPath = REPORT_DIR + File.separator + csvFileName;
-
-        try (FileWriter writer = new FileWriter(csvPath)) {
-            writer.write("TestName,Status,StartTime,EndTime,ExecutionTime(ms),ErrorMessage\\n");
-
-            if (job.getTestResults() != null) {
-                for (TestResult result : job.getTestResults()) {
-                    writer.write(String.format("%s,%s,%s,%s,%d,%s\\n",
-                            result.getTestName(),
-                            result.getStatus(),
-                            result.getStartTime(),
-                            result.getEndTime(),
-                            result.getExecutionTime(),
-                            result.getErrorMessage() != null ? result.getErrorMessage().replace(",", ";") : ""
-                    ));
+        List<TestResult> testResults = job.getTestResults();
+        Map<String, Long> thresholds = job.getDurationThresholds() != null ? job.getDurationThresholds() : Map.of();
+        ReportSummary summary = ReportSummary.of(testResults, thresholds);
+        RunTimeline timeline = RunTimeline.of(testResults);
+
+        // All three formats are streamed together in a single pass over the results
+        try (BufferedWriter html = openWriter(Paths.get(reportPath));
+             BufferedWriter csv = openWriter(csvPath);
+             BufferedWriter junit = openWriter(junitPath)) {
+
+            writeHtmlHeader(html, job, summary);
+            writeHtmlTimeline(html, job, timeline);
+            html.write(HTML_RESULTS_HEAD);
+            writeCsvHeader(csv);
+            writeJUnitHeader(junit, job, summary);
+
+            if (testResults != null) {
+                for (TestResult result : testResults) {
+                    writeHtmlRow(html, result, thresholds.get(result.getTestName()));
+                    writeCsvRow(csv, result);
+                    writeJUnitTestCase(junit, result);
                 }
             }
+
+            writeHtmlFooter(html);
+            writeJUnitFooter(junit);
+
+            logger.info("Generated HTML report: {}", reportPath);
             logger.info("Generated CSV report: {}", csvPath);
+            logger.info("Generated JUnit report: {}", junitPath);
         } catch (IOException e) {
-            logger.error("Failed to generate CSV report", e);
+            logger.error("Failed to generate reports", e);
+            return "Error generating report";
         }
+
+        return reportPath;
     }
 
-    private void generateJUnitReport(TestExecutionJob job, String timestamp) {
-        String junitFileName = String.format("TEST-%s-%s.xml", job.getRunId(), timestamp);
-        String junitPath = REPORT_DIR + File.separator + junitFileName;
+    private BufferedWriter openWriter(Path path) throws IOException {
+        return new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+    }
 
-        try (FileWriter writer = new FileWriter(junitPath)) {
-            int totalTests = job.getTestResults() != null ? job.getTestResults().size() : 0;
-            long failedTests = job.getTestResults() != null ?
-                    job.getTestResults().stream().filter(r -> "FAILED".equals(r.getStatus())).count() : 0;
+    private void writeHtmlHeader(Writer writer, TestExecutionJob job, ReportSummary summary) throws IOException {
+        writer.write(HTML_HEAD);
+        writer.write(String.format(Locale.ROOT, HTML_SUMMARY,
+                summary.total, summary.passed, summary.failed, summary.passPercentage(),
+                escapeHtml(job.getRunId()),
+                escapeHtml(job.getJobId()),
+                "COMPLETED".equals(job.getStatus()) ? "green" : "red",
+                escapeHtml(job.getStatus()),
+                escapeHtml(job.getTestRunRequest().getTestSuiteName()),
+                job.getTestRunRequest().getExecutionType(),
+                escapeHtml(job.getTestRunRequest().getBrowserType()),
+                job.getRetryCount(),
+                summary.durationRegressions));
+    }
 
-            writer.write(String.format("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\\n"));
-            writer.write(String.format("<testsuite name=\"%s\" tests=\"%d\" failures=\"%d\" time=\"0\">\\n",
-                    job.getTestRunRequest().getTestSuiteName(), totalTests, failedTests));
+    // Per-lane bars over the job's wall time; gaps in a track are idle time on that lane
+    private void writeHtmlTimeline(Writer writer, TestExecutionJob job, RunTimeline timeline) throws IOException {
+        if (timeline.testCount() == 0) {
+            return;
+        }
 
-            if (job.getTestResults() != null) {
-                for (TestResult result : job.getTestResults()) {
-                    writer.write(String.format("  <testcase name=\"%s\" time=\"%.3f\">\\n",
-                            result.getTestName(), result.getExecutionTime() / 1000.0));
+        writer.write("<h2>⏱️ Timeline</h2>\n<div class=\"test-info\">\n");
+        writer.write(String.format(Locale.ROOT,
+                "<p><strong>Shard:</strong> %d/%d &middot; <strong>Wall time:</strong> %d ms &middot; "
+                        + "<strong>Busy:</strong> %d ms on %d lane(s) (%.1f%% utilization) &middot; "
+                        + "<strong>Peak parallelism:</strong> %d</p>\n",
+                job.getShardIndex() + 1, job.getShardCount(), timeline.wallMillis(), timeline.busyMillis(),
+                timeline.lanes().size(), timeline.utilization(), timeline.peakParallelism()));
 
-                    if ("FAILED".equals(result.getStatus())) {
-                        writer.write(String.format("    <failure message=\"%s\">%s</failure>\\n",
-                                result.getErrorMessage() != null ? escapeXml(result.getErrorMessage()) : "Test failed",
-                                result.getStackTrace() != null ? escapeXml(result.getStackTrace()) : ""));
-                    }
+        RunTimeline.Lane critical = timeline.criticalLane();
+        List<RunTimeline.Bar> path = timeline.criticalPath();
+        writer.write(String.format(Locale.ROOT,
+                "<p><strong>Critical path:</strong> lane %s ran %d test(s) and sat idle for %d ms. "
+                        + "Tests setting the wall time: ",
+                escapeHtml(critical.name()), critical.bars().size(), timeline.criticalIdleMillis()));
+        for (int i = 0; i < Math.min(5, path.size()); i++) {
+            if (i > 0) {
+                writer.write(", ");
+            }
+            writer.write(escapeHtml(path.get(i).result().getTestName()));
+            writer.write(" (" + path.get(i).duration() + " ms)");
+        }
+        writer.write("</p>\n");
+        writer.write(String.format(Locale.ROOT,
+                "<p><strong>Best case:</strong> %d ms with the same lanes (longest test or an even spread); "
+                        + "splitting the critical-path tests is what moves the wall time.</p>\n</div>\n",
+                timeline.lowerBoundMillis()));
 
-                    writer.write("  </testcase>\\n");
+        long minDrawn = timeline.minDrawnMillis();
+        if (minDrawn > 0) {
+            writer.write(String.format(Locale.ROOT,
+                    "<p>Showing bars of %d ms or longer (%d tests total); lane gaps include the hidden tests.</p>\n",
+                    minDrawn, timeline.testCount()));
+        }
+
+        double scale = timeline.wallMillis() > 0 ? 100.0 / timeline.wallMillis() : 0;
+        writer.write("<div class=\"timeline\">\n");
+        for (RunTimeline.Lane lane : timeline.lanes()) {
+            boolean onCriticalPath = lane == critical;
+            writer.write("<div class=\"lane\"><span class=\"lane-name\" title=\"");
+            writer.write(escapeHtml(lane.name()));
+            writer.write("\">");
+            writer.write(escapeHtml(lane.name()));
+            writer.write("</span><div class=\"track\">");
+            for (RunTimeline.Bar bar : lane.bars()) {
+                if (!onCriticalPath && bar.duration() < minDrawn) {
+                    continue;
                 }
+                writer.write("<div class=\"bar ");
+                writer.write(barClass(bar.result().getStatus()));
+                writer.write(onCriticalPath ? " critical" : "");
+                writer.write(String.format(Locale.ROOT, "\" style=\"left:%.3f%%;width:%.3f%%\" title=\"",
+                        bar.startMillis() * scale, bar.duration() * scale));
+                writer.write(escapeHtml(bar.result().getTestName()));
+                writer.write(" (" + bar.duration() + " ms)\"></div>");
             }
+            writer.write("</div></div>\n");
+        }
+        writer.write("</div>\n");
+    }
 
-            writer.write("</testsuite>\\n");
-            logger.info("Generated JUnit report: {}", junitPath);
-        } catch (IOException e) {
-            logger.error("Failed to generate JUnit report", e);
+    private static String barClass(String status) {
+        return "PASSED".equals(status) ? "passed" : "SKIPPED".equals(status) ? "skipped" : "failed";
+    }
+
+    private void writeHtmlRow(Writer writer, TestResult result, Long durationThreshold) throws IOException {
+        String statusColor = "PASSED".equals(result.getStatus()) ? "green"
+                : "SKIPPED".equals(result.getStatus()) ? "gray" : "red";
+        writer.write("<tr><td>");
+        writer.write(escapeHtml(result.getTestName()));
+        writer.write("</td><td style=\"color: ");
+        writer.write(statusColor);
+        writer.write("; font-weight: bold;\">");
+        writer.write(escapeHtml(result.getStatus()));
+        writer.write("</td><td>");
+        writer.write(String.valueOf(result.getStartTime()));
+        writer.write("</td><td>");
+        writer.write(String.valueOf(result.getExecutionTime()));
+        writer.write(" ms");
+        if (isDurationRegression(result, durationThreshold)) {
+            writer.write(String.format(Locale.ROOT,
+                    " <span style=\"color: #e67e22; font-weight: bold;\" title=\"Threshold %d ms\">🐢 slower than baseline</span>",
+                    durationThreshold));
+        }
+        writer.write("</td><td>");
+        writer.write(escapeHtml(result.getErrorMessage()));
+        writer.write("</td></tr>\n");
+    }
+
+    private void writeHtmlFooter(Writer writer) throws IOException {
+        writer.write(String.format(HTML_FOOTER,
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
+    }
+
+    private void writeCsvHeader(Writer writer) throws IOException {
+        writer.write("TestName,Status,StartTime,EndTime,ExecutionTime(ms),ErrorMessage\n");
+    }
+
+    private void writeCsvRow(Writer writer, TestResult result) throws IOException {
+        writer.write(csvField(result.getTestName()));
+        writer.write(',');
+        writer.write(csvField(result.getStatus()));
+        writer.write(',');
+        writer.write(String.valueOf(result.getStartTime()));
+        writer.write(',');
+        writer.write(String.valueOf(result.getEndTime()));
+        writer.write(',');
+        writer.write(String.valueOf(result.getExecutionTime()));
+        writer.write(',');
+        writer.write(csvField(result.getErrorMessage()));
+        writer.write('\n');
+    }
+
+    private void writeJUnitHeader(Writer writer, TestExecutionJob job, ReportSummary summary) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<testsuite name=\"");
+        writer.write(escapeXml(job.getTestRunRequest().getTestSuiteName()));
+        writer.write("\" tests=\"");
+        writer.write(String.valueOf(summary.total));
+        writer.write("\" failures=\"");
+        writer.write(String.valueOf(summary.failed));
+        writer.write("\" time=\"");
+        writer.write(formatSeconds(summary.totalMillis));
+        writer.write("\">\n");
+    }
+
+    private void writeJUnitTestCase(Writer writer, TestResult result) throws IOException {
+        writer.write("  <testcase name=\"");
+        writer.write(escapeXml(result.getTestName()));
+        writer.write("\" time=\"");
+        writer.write(formatSeconds(result.getExecutionTime() != null ? result.getExecutionTime() : 0L));
+        writer.write("\">\n");
+
+        if ("FAILED".equals(result.getStatus())) {
+            writer.write("    <failure message=\"");
+            writer.write(result.getErrorMessage() != null ? escapeXml(result.getErrorMessage()) : "Test failed");
+            writer.write("\">");
+            writer.write(escapeXml(result.getStackTrace()));
+            writer.write("</failure>\n");
+        } else if ("SKIPPED".equals(result.getStatus())) {
+            writer.write("    <skipped/>\n");
         }
+
+        writer.write("  </testcase>\n");
+    }
+
+    private void writeJUnitFooter(Writer writer) throws IOException {
+        writer.write("</testsuite>\n");
+    }
+
+    // Same rule as the API: only a pass says how long the test really takes
+    private static boolean isDurationRegression(TestResult result, Long threshold) {
+        return threshold != null && "PASSED".equals(result.getStatus())
+                && result.getExecutionTime() != null && result.getExecutionTime() >= threshold;
+    }
+
+    private static String formatSeconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) return "";
+        return value.replace(",", ";").replace("\r", " ").replace("\n", " ");
+    }
+
+    private String escapeHtml(String text) {
+        if (text == null) return "";
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
     }
 
     private String escapeXml(String text) {
@@ -318,4 +489,39 @@ public class ReportGenerator {
             directory.mkdirs();
         }
     }
-}
\ No newline at end of file
+
+    // Counters the headers need up front; gathering them allocates nothing per result
+    private static class ReportSummary {
+        private int total;
+        private int passed;
+        private int failed;
+        private long totalMillis;
+        private int durationRegressions;
+
+        private static ReportSummary of(List<TestResult> testResults, Map<String, Long> durationThresholds) {
+            ReportSummary summary = new ReportSummary();
+            if (testResults == null) {
+                return summary;
+            }
+            for (TestResult result : testResults) {
+                summary.total++;
+                if ("PASSED".equals(result.getStatus())) {
+                    summary.passed++;
+                } else if ("FAILED".equals(result.getStatus())) {
+                    summary.failed++;
+                }
+                if (result.getExecutionTime() != null) {
+                    summary.totalMillis += result.getExecutionTime();
+                }
+                if (isDurationRegression(result, durationThresholds.get(result.getTestName()))) {
+                    summary.durationRegressions++;
+                }
+            }
+            return summary;
+        }
+
+        private double passPercentage() {
+            return total > 0 ? (passed * 100.0) / total : 0;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestExecutionJob;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Writes reports off the execution path; a full queue makes the submitting job thread write its own report
+@Component
+public class ReportPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportPipeline.class);
+
+    @Autowired
+    private ReportGenerator reportGenerator;
+
+    @Autowired
+    private WorkerMetrics metrics;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Value("${worker.reports.threads:1}")
+    private int threads;
+
+    @Value("${worker.reports.queue-capacity:20}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-writer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        metrics.getRegistry().gauge("worker.reports.queued", executor, pool -> pool.getQueue().size());
+    }
+
+    public void submit(TestExecutionJob job, TestResultPublisher.ResultStream stream) {
+        Observation parent = observationRegistry.getCurrentObservation();
+        executor.execute(() -> {
+            long startNanos = System.nanoTime();
+            Observation observation = Observation.createNotStarted("regression.report", observationRegistry)
+                    .parentObservation(parent)
+                    .contextualName("report " + job.getJobId())
+                    .highCardinalityKeyValue("runId", job.getRunId());
+            try {
+                String reportUrl = observation.observe(() -> reportGenerator.generateReport(job));
+                metrics.record(WorkerMetrics.REPORT_GENERATION, WorkerMetrics.tags(job), startNanos);
+                if (reportUrl != null && !reportUrl.startsWith("Error")) {
+                    stream.reportReady(reportUrl);
+                }
+            } catch (Exception e) {
+                logger.error("Report generation failed for job: {}", job.getJobId(), e);
+            }
+        });
+    }
+
+    public int getQueuedReports() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Report pipeline did not drain within 30s; {} report(s) dropped",
+                    executor.shutdownNow().size());
+        }
+    }
+}
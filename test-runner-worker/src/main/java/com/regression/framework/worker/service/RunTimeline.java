@@ -0,0 +1,197 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Lays a job's tests out per lane and finds the lane that set its wall time.
+// One sort plus linear passes, so it stays cheap for very large suites.
+class RunTimeline {
+
+    // Bars beyond this are dropped from the HTML, shortest first; critical-path bars are always drawn
+    static final int MAX_BARS = 2000;
+
+    record Bar(TestResult result, String lane, long startMillis, long endMillis) {
+        long duration() {
+            return endMillis - startMillis;
+        }
+    }
+
+    record Lane(String name, List<Bar> bars, long busyMillis) {}
+
+    private final List<Lane> lanes;
+    private final int testCount;
+    private final long wallMillis;
+    private final long busyMillis;
+    private final long longestMillis;
+    private final int peakParallelism;
+    private final Lane criticalLane;
+
+    private RunTimeline(List<Lane> lanes, int testCount, long wallMillis, long busyMillis,
+                        long longestMillis, int peakParallelism, Lane criticalLane) {
+        this.lanes = lanes;
+        this.testCount = testCount;
+        this.wallMillis = wallMillis;
+        this.busyMillis = busyMillis;
+        this.longestMillis = longestMillis;
+        this.peakParallelism = peakParallelism;
+        this.criticalLane = criticalLane;
+    }
+
+    static RunTimeline of(List<TestResult> results) {
+        List<TestResult> timed = new ArrayList<>();
+        LocalDateTime origin = null;
+        if (results != null) {
+            for (TestResult result : results) {
+                if (result.getStartTime() != null && result.getEndTime() != null) {
+                    timed.add(result);
+                    if (origin == null || result.getStartTime().isBefore(origin)) {
+                        origin = result.getStartTime();
+                    }
+                }
+            }
+        }
+        if (timed.isEmpty()) {
+            return new RunTimeline(List.of(), 0, 0, 0, 0, 0, null);
+        }
+
+        List<Bar> bars = new ArrayList<>(timed.size());
+        for (TestResult result : timed) {
+            long start = Duration.between(origin, result.getStartTime()).toMillis();
+            long end = Math.max(start, Duration.between(origin, result.getEndTime()).toMillis());
+            bars.add(new Bar(result, result.getLane(), start, end));
+        }
+        bars.sort(Comparator.comparingLong(Bar::startMillis));
+
+        // Results from a worker that didn't record lanes get packed into the fewest non-overlapping ones
+        PriorityQueue<long[]> packed = new PriorityQueue<>(Comparator.comparingLong(slot -> slot[0]));
+        Map<String, List<Bar>> byLane = new LinkedHashMap<>();
+        long wall = 0;
+        long busy = 0;
+        long longest = 0;
+        Bar last = null;
+        for (Bar bar : bars) {
+            String lane = bar.lane();
+            if (lane == null) {
+                long[] slot = packed.peek();
+                if (slot == null || slot[0] > bar.startMillis()) {
+                    slot = new long[]{0, packed.size() + 1};
+                } else {
+                    packed.poll();
+                }
+                slot[0] = bar.endMillis();
+                packed.add(slot);
+                lane = "packed-" + slot[1];
+                bar = new Bar(bar.result(), lane, bar.startMillis(), bar.endMillis());
+            }
+            byLane.computeIfAbsent(lane, name -> new ArrayList<>()).add(bar);
+            busy += bar.duration();
+            longest = Math.max(longest, bar.duration());
+            if (last == null || bar.endMillis() > last.endMillis()) {
+                last = bar;
+            }
+            wall = Math.max(wall, bar.endMillis());
+        }
+
+        List<Lane> lanes = new ArrayList<>(byLane.size());
+        Lane critical = null;
+        for (Map.Entry<String, List<Bar>> entry : byLane.entrySet()) {
+            long laneBusy = 0;
+            for (Bar bar : entry.getValue()) {
+                laneBusy += bar.duration();
+            }
+            Lane lane = new Lane(entry.getKey(), entry.getValue(), laneBusy);
+            lanes.add(lane);
+            if (entry.getKey().equals(last.lane())) {
+                critical = lane;
+            }
+        }
+
+        return new RunTimeline(lanes, bars.size(), wall, busy, longest, peakParallelism(bars), critical);
+    }
+
+    // Sweep over start and end times; bars are already in start order
+    private static int peakParallelism(List<Bar> bars) {
+        long[] ends = new long[bars.size()];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = bars.get(i).endMillis();
+        }
+        Arrays.sort(ends);
+
+        int running = 0;
+        int peak = 0;
+        int endIndex = 0;
+        for (Bar bar : bars) {
+            while (endIndex < ends.length && ends[endIndex] <= bar.startMillis()) {
+                endIndex++;
+                running--;
+            }
+            running++;
+            peak = Math.max(peak, running);
+        }
+        return peak;
+    }
+
+    // Tests on the lane that finished last, longest first: splitting or speeding these up shortens the job
+    List<Bar> criticalPath() {
+        if (criticalLane == null) {
+            return List.of();
+        }
+        List<Bar> path = new ArrayList<>(criticalLane.bars());
+        path.sort(Comparator.comparingLong(Bar::duration).reversed());
+        return path;
+    }
+
+    // Shortest bar still drawn, so at most MAX_BARS bars (plus the critical lane) reach the page
+    long minDrawnMillis() {
+        if (testCount <= MAX_BARS) {
+            return 0;
+        }
+        long[] durations = new long[testCount];
+        int i = 0;
+        for (Lane lane : lanes) {
+            for (Bar bar : lane.bars()) {
+                durations[i++] = bar.duration();
+            }
+        }
+        Arrays.sort(durations);
+        return durations[testCount - MAX_BARS];
+    }
+
+    // No schedule can beat the longest single test or a perfect spread of the busy time over the lanes
+    long lowerBoundMillis() {
+        if (lanes.isEmpty()) {
+            return 0;
+        }
+        return Math.max(longestMillis, (busyMillis + lanes.size() - 1) / lanes.size());
+    }
+
+    double utilization() {
+        return wallMillis > 0 && !lanes.isEmpty() ? busyMillis * 100.0 / (wallMillis * lanes.size()) : 0;
+    }
+
+    // The critical lane ends at the wall time, so any idle time on it delayed the whole job
+    long criticalIdleMillis() {
+        return criticalLane != null ? wallMillis - criticalLane.busyMillis() : 0;
+    }
+
+    List<Lane> lanes() { return lanes; }
+
+    int testCount() { return testCount; }
+
+    long wallMillis() { return wallMillis; }
+
+    long busyMillis() { return busyMillis; }
+
+    int peakParallelism() { return peakParallelism; }
+
+    Lane criticalLane() { return criticalLane; }
+}
@@ -0,0 +1,210 @@
+package com.regression.framework.worker.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Content-addressed screenshot storage: screenshots/<ab>/<cd>/<sha256>.png
+@Component
+public class ScreenshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotStore.class);
+
+    @Value("${worker.screenshots.dir:screenshots}")
+    private String rootDir;
+
+    @Value("${worker.screenshots.max-width:1280}")
+    private int maxWidth;
+
+    @Value("${worker.screenshots.max-total-mb:512}")
+    private long maxTotalMb;
+
+    @Value("${worker.screenshots.max-age-days:14}")
+    private long maxAgeDays;
+
+    // Queued writes hold full PNGs; past this many, the capturing test thread writes its own
+    @Value("${worker.screenshots.write-queue-capacity:16}")
+    private int writeQueueCapacity;
+
+    private Path root;
+    private final Set<String> pendingWrites = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor writer;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(rootDir);
+        Files.createDirectories(root);
+        // Caller-runs turns a burst of failing web tests into backpressure instead of unbounded memory
+        writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, writeQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Returns the content hash right away; downscaling and the disk write happen in the background
+    public String store(byte[] png) {
+        String hash = sha256(png);
+        Path target = resolve(hash);
+
+        if (Files.exists(target)) {
+            touch(target);
+            logger.debug("Screenshot {} already stored, reusing it", hash);
+            return hash;
+        }
+
+        if (pendingWrites.add(hash)) {
+            writer.execute(() -> {
+                try {
+                    write(png, target);
+                } finally {
+                    pendingWrites.remove(hash);
+                }
+            });
+        }
+        return hash;
+    }
+
+    public Path resolve(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".png");
+    }
+
+    private void write(byte[] png, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "shot", ".tmp");
+
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image != null && image.getWidth() > maxWidth) {
+                ImageIO.write(downscale(image), "png", temp.toFile());
+            } else {
+                Files.write(temp, png);
+            }
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Screenshot stored: {} ({} bytes)", target, Files.size(target));
+        } catch (Exception e) {
+            logger.error("Failed to store screenshot {}", target, e);
+        }
+    }
+
+    private BufferedImage downscale(BufferedImage image) {
+        int height = (int) Math.round(image.getHeight() * (maxWidth / (double) image.getWidth()));
+        BufferedImage scaled = new BufferedImage(maxWidth, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, maxWidth, height, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    // Age-based eviction first, then oldest-first until the store fits the size budget
+    @Scheduled(fixedDelayString = "${worker.screenshots.eviction-interval-ms:600000}")
+    public void evict() {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.filter(path -> path.toString().endsWith(".png")).forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("Failed to scan screenshot store: {}", e.getMessage());
+            return;
+        }
+
+        Instant cutoff = Instant.now().minus(Duration.ofDays(maxAgeDays));
+        List<StoredFile> kept = new ArrayList<>();
+        long totalBytes = 0;
+        int evicted = 0;
+        for (Path file : files) {
+            try {
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (modified.toInstant().isBefore(cutoff)) {
+                    Files.deleteIfExists(file);
+                    evicted++;
+                } else {
+                    long size = Files.size(file);
+                    kept.add(new StoredFile(file, modified, size));
+                    totalBytes += size;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to inspect screenshot {}: {}", file, e.getMessage());
+            }
+        }
+
+        long budget = maxTotalMb * 1024 * 1024;
+        if (totalBytes > budget) {
+            kept.sort(Comparator.comparing(StoredFile::modified));
+            for (StoredFile file : kept) {
+                if (totalBytes <= budget) {
+                    break;
+                }
+                try {
+                    Files.deleteIfExists(file.path());
+                    totalBytes -= file.size();
+                    evicted++;
+                } catch (IOException e) {
+                    logger.warn("Failed to evict screenshot {}: {}", file.path(), e.getMessage());
+                }
+            }
+        }
+
+        if (evicted > 0) {
+            logger.info("Evicted {} screenshot(s); store now holds {} bytes", evicted, totalBytes);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.warn("Failed to refresh screenshot timestamp {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record StoredFile(Path path, FileTime modified, long size) {}
+}
@@ -0,0 +1,113 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestResult;
+import com.regression.framework.models.TestResultBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams results to test-results-queue in small batches while a job is still running
+@Component
+public class TestResultPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestResultPublisher.class);
+    private static final String RESULTS_QUEUE = "test-results-queue";
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ArtifactStore artifactStore;
+
+    @Autowired
+    private WorkerMetrics metrics;
+
+    @Value("${worker.results.batch-size:10}")
+    private int batchSize;
+
+    @Value("${worker.results.max-delay-ms:2000}")
+    private long maxDelayMillis;
+
+    public ResultStream open(TestExecutionJob job) {
+        return new ResultStream(job);
+    }
+
+    public class ResultStream {
+        private final TestExecutionJob job;
+        private final List<TestResult> buffer = new ArrayList<>();
+        private int sequence = 0;
+        private int totalResults = 0;
+        private long lastFlush = System.currentTimeMillis();
+
+        private ResultStream(TestExecutionJob job) {
+            this.job = job;
+        }
+
+        // Called from parallel test threads. Only the batch bookkeeping is synchronized: artifact I/O and
+        // the broker publish run outside the lock, so test threads don't queue behind each other and
+        // virtual threads never block while pinned to their carrier.
+        public void add(TestResult result) {
+            // Large fields travel by reference; the caller keeps the full result for the report
+            TestResult offloaded = artifactStore.offload(result);
+            TestResultBatch batch = null;
+            synchronized (this) {
+                buffer.add(offloaded);
+                totalResults++;
+                if (buffer.size() >= batchSize || System.currentTimeMillis() - lastFlush >= maxDelayMillis) {
+                    batch = takeBatch(false, null, null);
+                }
+            }
+            if (batch != null) {
+                publish(batch);
+            }
+        }
+
+        public synchronized int getTotalResults() {
+            return totalResults;
+        }
+
+        // Every add() has returned by now, so the marker carries the final count
+        public void complete(String status, String reportUrl) {
+            publish(takeBatch(true, status, reportUrl));
+        }
+
+        // Follow-up sent once the report files exist; carries no results
+        public void reportReady(String reportUrl) {
+            publish(takeBatch(false, null, reportUrl));
+        }
+
+        private synchronized TestResultBatch takeBatch(boolean complete, String status, String reportUrl) {
+            TestResultBatch batch = new TestResultBatch(job, sequence++);
+            batch.setResults(new ArrayList<>(buffer));
+            batch.setComplete(complete);
+            batch.setStatus(status);
+            batch.setReportUrl(reportUrl);
+            batch.setTotalResults(totalResults);
+            buffer.clear();
+            lastFlush = System.currentTimeMillis();
+            return batch;
+        }
+
+        // Batches may reach the broker out of sequence order; the API only sums their counts
+        private void publish(TestResultBatch batch) {
+            boolean complete = batch.isComplete();
+            long startNanos = System.nanoTime();
+            try {
+                rabbitTemplate.convertAndSend(RESULTS_QUEUE, batch);
+                metrics.record(WorkerMetrics.RESULT_PUBLISH,
+                        WorkerMetrics.tags(job).and("complete", String.valueOf(complete)), startNanos);
+                logger.debug("Sent {} result(s) for job {} (batch {}, complete={})",
+                        batch.getResults().size(), job.getJobId(), batch.getSequence(), complete);
+            } catch (Exception e) {
+                logger.error("Failed to send result batch {} for job {}", batch.getSequence(), job.getJobId(), e);
+            }
+        }
+    }
+}
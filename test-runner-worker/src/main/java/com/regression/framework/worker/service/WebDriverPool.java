@@ -0,0 +1,360 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestExecutionJob;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Bounded pool of pre-warmed Chrome sessions shared by all web tests on this worker
+@Component
+public class WebDriverPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebDriverPool.class);
+    private static final long CANCELLATION_POLL_MILLIS = 250;
+
+    @Autowired
+    private WorkerMetrics metrics;
+
+    @Value("${worker.browser-pool.max-size:2}")
+    private int maxSize;
+
+    @Value("${worker.browser-pool.min-idle:1}")
+    private int minIdle;
+
+    @Value("${worker.browser-pool.max-uses:50}")
+    private int maxUses;
+
+    // Browsers a web job holds while it runs, and so how many of its web tests run at once
+    @Value("${worker.browser-pool.max-per-job:1}")
+    private int maxPerJob;
+
+    @Value("${worker.browser-pool.borrow-timeout-seconds:60}")
+    private long borrowTimeoutSeconds;
+
+    @Value("${worker.browser-pool.headless:false}")
+    private boolean headless;
+
+    private final BlockingDeque<WebDriver> idleDrivers = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, Integer> useCounts = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Map<WebDriver, Reservation> claimedBy = new ConcurrentHashMap<>();
+
+    // One permit per Chrome process this worker may keep alive
+    private Semaphore permits;
+    private volatile boolean closed = false;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxSize, true);
+        metrics.getRegistry().gauge("worker.browser.pool.available", permits, Semaphore::availablePermits);
+        metrics.getRegistry().gauge("worker.browser.pool.idle", idleDrivers, BlockingDeque::size);
+
+        Thread warmer = new Thread(() -> {
+            replenish();
+            logger.info("Browser pool warmed with {} idle session(s)", idleDrivers.size());
+        }, "browser-pool-warmup");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    // Sessions retired after max-uses, a failed reset or a crash are not replaced on release, so this
+    // drops dead idle sessions and tops the pool back up to min-idle between borrows
+    @Scheduled(fixedDelayString = "${worker.browser-pool.maintenance-interval-ms:30000}",
+            initialDelayString = "${worker.browser-pool.maintenance-interval-ms:30000}")
+    public void maintain() {
+        evictUnhealthy();
+        int before = idleDrivers.size();
+        replenish();
+        if (idleDrivers.size() > before) {
+            logger.info("Browser pool replenished to {} idle session(s)", idleDrivers.size());
+        }
+    }
+
+    // Each check holds a permit, so a borrower never starts an extra session while one is out for checking.
+    // Rotating the deque once keeps the most recently used sessions in front.
+    private void evictUnhealthy() {
+        for (int i = idleDrivers.size(); i > 0 && !closed; i--) {
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            try {
+                WebDriver driver = idleDrivers.pollFirst();
+                if (driver == null) {
+                    return;
+                }
+                if (isHealthy(driver)) {
+                    idleDrivers.offerLast(driver);
+                } else {
+                    discard(driver);
+                }
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void replenish() {
+        int target = Math.min(minIdle, maxSize);
+        while (!closed && idleDrivers.size() < target) {
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            try {
+                // Borrowers may have returned sessions meanwhile; never exceed the cap
+                int inUse = maxSize - permits.availablePermits();
+                if (idleDrivers.size() >= target || idleDrivers.size() + inUse > maxSize) {
+                    return;
+                }
+                idleDrivers.offerLast(createDriver());
+            } catch (Exception e) {
+                logger.warn("Failed to start idle browser session: {}", e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    // Holds browser permits for a web job from admission on, so a job is never admitted and then left
+    // without a browser because the last slot went to another job first. The first permit is waited for;
+    // up to max-per-job more are taken only if they are free right now. The engine runs no more of the
+    // job's web tests at once than it holds, so its tests never wait in borrow.
+    public Reservation reserve(TestExecutionJob job) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Browser pool is shut down");
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(borrowTimeoutSeconds);
+        while (!permits.tryAcquire(CANCELLATION_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (System.nanoTime() >= deadline) {
+                throw new IllegalStateException("Timed out reserving a browser session for job "
+                        + job.getJobId() + " after " + borrowTimeoutSeconds + "s");
+            }
+        }
+        int held = 1;
+        while (held < maxPerJob && permits.tryAcquire()) {
+            held++;
+        }
+        Reservation reservation = new Reservation(job.getJobId(), held);
+        reservations.put(job.getJobId(), reservation);
+        return reservation;
+    }
+
+    // Browsers reserved for the job, or 0 if it has none
+    public int reservedFor(TestExecutionJob job) {
+        Reservation reservation = reservations.get(job.getJobId());
+        return reservation != null ? reservation.size : 0;
+    }
+
+    // Waits in short slices so a cancelled job gives up its place in line right away
+    public WebDriver borrow(TestExecutionJob job, CancellationToken token) throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("Browser pool is shut down");
+        }
+        Reservation reservation = job != null ? reservations.get(job.getJobId()) : null;
+        Reservation claimed = null;
+        long waitStart = System.nanoTime();
+        long deadline = waitStart + TimeUnit.SECONDS.toNanos(borrowTimeoutSeconds);
+        while (true) {
+            if (reservation != null && reservation.claim()) {
+                claimed = reservation;
+                break;
+            }
+            if (permits.tryAcquire(CANCELLATION_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                break;
+            }
+            if (token != null) {
+                token.throwIfCancelled();
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new IllegalStateException("Timed out waiting for a browser session after "
+                        + borrowTimeoutSeconds + "s");
+            }
+        }
+        metrics.record(WorkerMetrics.BROWSER_BORROW_WAIT, Tags.empty(), waitStart);
+
+        try {
+            WebDriver driver = takeIdleOrCreate();
+            if (claimed != null) {
+                claimedBy.put(driver, claimed);
+            }
+            return driver;
+        } catch (RuntimeException e) {
+            returnPermit(claimed);
+            throw e;
+        }
+    }
+
+    private WebDriver takeIdleOrCreate() {
+        WebDriver driver;
+        while ((driver = idleDrivers.pollFirst()) != null) {
+            if (isHealthy(driver)) {
+                return driver;
+            }
+            discard(driver);
+        }
+        return createDriver();
+    }
+
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+
+        Reservation claimed = claimedBy.remove(driver);
+        try {
+            int uses = useCounts.merge(driver, 1, Integer::sum);
+            if (closed || uses >= maxUses || !reset(driver)) {
+                discard(driver);
+            } else {
+                idleDrivers.offerFirst(driver);
+            }
+        } finally {
+            returnPermit(claimed);
+        }
+    }
+
+    // A reserved permit goes back to its job while the job runs, and to the pool once it has ended
+    private void returnPermit(Reservation claimed) {
+        if (claimed != null) {
+            claimed.park();
+        } else {
+            permits.release();
+        }
+    }
+
+    // Permits held for one job: parked ones wait for its next test, claimed ones are out with a session
+    public final class Reservation implements AutoCloseable {
+        private final String jobId;
+        private final int size;
+        private int parked;
+        private boolean closed;
+
+        private Reservation(String jobId, int size) {
+            this.jobId = jobId;
+            this.size = size;
+            this.parked = size;
+        }
+
+        private synchronized boolean claim() {
+            if (closed || parked == 0) {
+                return false;
+            }
+            parked--;
+            return true;
+        }
+
+        private synchronized void park() {
+            if (closed) {
+                permits.release();
+            } else {
+                parked++;
+            }
+        }
+
+        // A test still holding a permit hands it to the pool when it releases its session
+        @Override
+        public synchronized void close() {
+            reservations.remove(jobId, this);
+            closed = true;
+            permits.release(parked);
+            parked = 0;
+        }
+    }
+
+    public int getMaxSize() { return maxSize; }
+
+    public int getAvailableSlots() { return permits.availablePermits(); }
+
+    public int getIdleCount() { return idleDrivers.size(); }
+
+    private WebDriver createDriver() {
+        System.setProperty("webdriver.chrome.driver", getChromeDriverPath());
+        ChromeOptions options = new ChromeOptions();
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--window-size=1920,1080");
+
+        long startNanos = System.nanoTime();
+        WebDriver driver = new ChromeDriver(options);
+        useCounts.put(driver, 0);
+        metrics.record(WorkerMetrics.BROWSER_STARTUP, Tags.of("headless", String.valueOf(headless)), startNanos);
+        logger.info("Started browser session in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return driver;
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            logger.warn("Dropping unhealthy browser session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Clears cookies and web storage so the next test starts from a clean session
+    private boolean reset(WebDriver driver) {
+        try {
+            driver.manage().deleteAllCookies();
+            String currentUrl = driver.getCurrentUrl();
+            if (currentUrl != null && currentUrl.startsWith("http")) {
+                ((JavascriptExecutor) driver).executeScript(
+                        "window.localStorage.clear(); window.sessionStorage.clear();");
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to reset browser session, recycling it: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(WebDriver driver) {
+        useCounts.remove(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.warn("Failed to quit browser session: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        WebDriver driver;
+        while ((driver = idleDrivers.pollFirst()) != null) {
+            discard(driver);
+        }
+        logger.info("Browser pool shut down");
+    }
+
+    private String getChromeDriverPath() {
+        String os = System.getProperty("os.name").toLowerCase();
+        if (os.contains("win")) {
+            return "chromedriver.exe";
+        } else {
+            return "chromedriver";
+        }
+    }
+}
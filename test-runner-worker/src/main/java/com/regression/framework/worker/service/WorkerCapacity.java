@@ -0,0 +1,111 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.models.WorkerStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+// Tracks free job slots on this worker and reports them to the API
+@Component
+public class WorkerCapacity {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerCapacity.class);
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private WebDriverPool webDriverPool;
+
+    @Autowired
+    private WorkerMetrics metrics;
+
+    @Value("${worker.capacity.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${worker.id:}")
+    private String workerId;
+
+    // Share of the job slots each lane may hold at once; keeps long nightly runs from starving the others
+    @Value("${worker.lanes.smoke.max-share:1.0}")
+    private double smokeMaxShare;
+
+    @Value("${worker.lanes.pr.max-share:1.0}")
+    private double prMaxShare;
+
+    @Value("${worker.lanes.nightly.max-share:0.5}")
+    private double nightlyMaxShare;
+
+    private Semaphore jobSlots;
+    private final Map<TestRunRequest.Priority, Semaphore> laneSlots = new EnumMap<>(TestRunRequest.Priority.class);
+
+    @PostConstruct
+    public void init() {
+        jobSlots = new Semaphore(maxConcurrentJobs, true);
+        laneSlots.put(TestRunRequest.Priority.SMOKE, laneSemaphore(smokeMaxShare));
+        laneSlots.put(TestRunRequest.Priority.PR, laneSemaphore(prMaxShare));
+        laneSlots.put(TestRunRequest.Priority.NIGHTLY, laneSemaphore(nightlyMaxShare));
+        metrics.getRegistry().gauge("worker.jobs.active", this, WorkerCapacity::getActiveJobs);
+        metrics.getRegistry().gauge("worker.jobs.capacity", this, capacity -> capacity.maxConcurrentJobs);
+        if (workerId == null || workerId.isBlank()) {
+            workerId = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        logger.info("Worker {} accepts up to {} concurrent job(s)", workerId, maxConcurrentJobs);
+    }
+
+    private Semaphore laneSemaphore(double maxShare) {
+        int permits = (int) Math.ceil(maxConcurrentJobs * Math.min(Math.max(maxShare, 0.0), 1.0));
+        return new Semaphore(Math.max(1, permits), true);
+    }
+
+    // Non-blocking: a job slot only fetches from a lane it could start a job on right now
+    public boolean tryAcquire(TestRunRequest.Priority lane) {
+        Semaphore laneSlot = laneSlots.get(lane);
+        if (!laneSlot.tryAcquire()) {
+            return false;
+        }
+        if (!jobSlots.tryAcquire()) {
+            laneSlot.release();
+            return false;
+        }
+        return true;
+    }
+
+    public int getMaxConcurrentJobs() {
+        return maxConcurrentJobs;
+    }
+
+    public void release(TestRunRequest.Priority lane) {
+        jobSlots.release();
+        laneSlots.get(lane).release();
+    }
+
+    public int getActiveJobs() {
+        return maxConcurrentJobs - jobSlots.availablePermits();
+    }
+
+    public WorkerStatus snapshot() {
+        return new WorkerStatus(workerId, maxConcurrentJobs, getActiveJobs(),
+                webDriverPool.getMaxSize(), webDriverPool.getAvailableSlots());
+    }
+
+    @Scheduled(fixedRateString = "${worker.capacity.report-interval-ms:10000}")
+    public void reportCapacity() {
+        try {
+            rabbitTemplate.convertAndSend("worker-status-queue", snapshot());
+        } catch (Exception e) {
+            logger.warn("Failed to report worker capacity: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestRunRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Timers for the execution hot path, scraped from /actuator/prometheus; gauges live with the state they read
+@Component
+public class WorkerMetrics {
+
+    public static final String QUEUE_WAIT = "worker.job.queue.wait";
+    public static final String JOB_DURATION = "worker.job.duration";
+    public static final String TEST_DURATION = "worker.test.duration";
+    public static final String BROWSER_STARTUP = "worker.browser.startup";
+    public static final String BROWSER_BORROW_WAIT = "worker.browser.borrow.wait";
+    public static final String SCREENSHOT_CAPTURE = "worker.screenshot.capture";
+    public static final String REPORT_GENERATION = "worker.report.generation";
+    public static final String RESULT_PUBLISH = "worker.results.publish";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private Tracer tracer;
+
+    // Every job-scoped metric is tagged by suite and execution type
+    public static Tags tags(TestExecutionJob job) {
+        TestRunRequest request = job.getTestRunRequest();
+        String suite = request != null && request.getTestSuiteName() != null ? request.getTestSuiteName() : "unknown";
+        String executionType = request != null && request.getExecutionType() != null
+                ? request.getExecutionType().name() : "unknown";
+        return Tags.of("suite", suite, "executionType", executionType);
+    }
+
+    // Time from scheduling on the API to pickup here; includes delay-queue retries and worker clock skew.
+    // Also emitted as a backdated span under the delivery span, so traces show the gap explicitly.
+    public void recordQueueWait(TestExecutionJob job, TestRunRequest.Priority lane) {
+        if (job.getCreatedAt() == null) {
+            return;
+        }
+        Duration wait = Duration.between(job.getCreatedAt(), LocalDateTime.now());
+        if (wait.isNegative()) {
+            wait = Duration.ZERO;
+        }
+        timer(QUEUE_WAIT, tags(job).and("lane", lane.name())).record(wait);
+
+        Span current = tracer.currentSpan();
+        Span.Builder builder = tracer.spanBuilder()
+                .name("job queue wait")
+                .tag("lane", lane.name())
+                .tag("jobId", job.getJobId())
+                .startTimestamp(System.currentTimeMillis() - wait.toMillis(), TimeUnit.MILLISECONDS);
+        if (current != null) {
+            builder.setParent(current.context());
+        }
+        builder.start().end();
+    }
+
+    public void record(String name, Tags tags, long startNanos) {
+        timer(name, tags).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer timer(String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+}
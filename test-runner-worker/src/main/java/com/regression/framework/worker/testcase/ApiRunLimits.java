@@ -0,0 +1,45 @@
+package com.regression.framework.worker.testcase;
+
+import com.regression.framework.models.TestResult;
+import com.regression.framework.worker.service.CancellationToken;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-job throttling for API tests: a concurrency cap per target host plus an optional request rate.
+// Each target has its own dispatcher, so a test only gets a thread once its host has a free slot.
+class ApiRunLimits {
+
+    private final Executor executor;
+    private final int concurrencyPerTarget;
+    private final long intervalNanos;
+    private final Map<String, BoundedDispatcher<TestResult>> targets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+    ApiRunLimits(Executor executor, int concurrencyPerTarget, double requestsPerSecond) {
+        this.executor = executor;
+        this.concurrencyPerTarget = concurrencyPerTarget;
+        this.intervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+    }
+
+    BoundedDispatcher<TestResult> forTarget(String target) {
+        return targets.computeIfAbsent(target != null ? target : "",
+                key -> new BoundedDispatcher<>(executor, concurrencyPerTarget));
+    }
+
+    // Hands out evenly spaced start times; idle periods do not bank up a burst.
+    // Throws CancellationException if the job is cancelled while waiting.
+    void awaitRateSlot(CancellationToken token) throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long slot = nextSlot.updateAndGet(previous -> Math.max(previous, System.nanoTime()) + intervalNanos) - intervalNanos;
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(slot - System.nanoTime());
+        if (waitMillis > 0) {
+            token.sleep(waitMillis);
+        }
+    }
+}
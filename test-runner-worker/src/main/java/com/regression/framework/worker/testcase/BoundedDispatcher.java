@@ -0,0 +1,73 @@
+package com.regression.framework.worker.testcase;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Hands tests to an executor with at most `limit` of them in flight. A test that finishes submits the
+// next queued one, so tests waiting for their turn hold no thread at all.
+class BoundedDispatcher<T> {
+
+    private record Pending<T>(Supplier<T> task, CompletableFuture<T> result) {}
+
+    private final Executor executor;
+    private final int limit;
+    private final Queue<Pending<T>> waiting = new ArrayDeque<>();
+    private int inFlight;
+
+    BoundedDispatcher(Executor executor, int limit) {
+        this.executor = executor;
+        this.limit = Math.max(1, limit);
+    }
+
+    Future<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        synchronized (this) {
+            waiting.add(new Pending<>(task, result));
+        }
+        dispatch();
+        return result;
+    }
+
+    private void dispatch() {
+        while (true) {
+            Pending<T> next;
+            synchronized (this) {
+                if (inFlight >= limit || waiting.isEmpty()) {
+                    return;
+                }
+                inFlight++;
+                next = waiting.poll();
+            }
+            try {
+                executor.execute(() -> run(next));
+            } catch (RuntimeException e) {
+                // Executor shut down: fail the test instead of leaving its caller waiting forever
+                next.result().completeExceptionally(e);
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    private void run(Pending<T> pending) {
+        try {
+            pending.result().complete(pending.task().get());
+        } catch (Throwable e) {
+            pending.result().completeExceptionally(e);
+        } finally {
+            finished();
+        }
+    }
+
+    private void finished() {
+        synchronized (this) {
+            inFlight--;
+        }
+        dispatch();
+    }
+}
@@ -0,0 +1,361 @@
+package com.regression.framework.worker.testcase;
+
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestResult;
+import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.worker.service.ApiClientPool;
+import com.regression.framework.worker.service.Backoff;
+import com.regression.framework.worker.service.CancellationToken;
+import com.regression.framework.worker.service.ScreenshotStore;
+import com.regression.framework.worker.service.WebDriverPool;
+import com.regression.framework.worker.service.WorkerMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Work-stealing pool shared by all jobs on this worker; each test runs as an isolated task.
+// API tests can instead run one-per-thread on virtual threads, throttled per target host.
+@Component
+public class ParallelTestEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelTestEngine.class);
+
+    @Autowired
+    private WebDriverPool webDriverPool;
+
+    @Autowired
+    private ScreenshotStore screenshotStore;
+
+    @Autowired
+    private ApiClientPool apiClientPool;
+
+    @Autowired
+    private WorkerMetrics metrics;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    // 0 means one thread per available core
+    @Value("${worker.engine.parallelism:0}")
+    private int parallelism;
+
+    // "virtual" runs API tests on their own threads; "pool" keeps them on the work-stealing pool
+    @Value("${worker.engine.api-mode:virtual}")
+    private String apiMode;
+
+    // Runs can lower or raise this, up to the HTTP pool's connections per host
+    @Value("${worker.engine.api-concurrency-per-target:64}")
+    private int defaultConcurrencyPerTarget;
+
+    @Value("${worker.engine.api-requests-per-second:0}")
+    private double defaultRequestsPerSecond;
+
+    @Value("${worker.retry.test-initial-backoff-ms:500}")
+    private long testInitialBackoffMillis;
+
+    @Value("${worker.retry.test-max-backoff-ms:10000}")
+    private long testMaxBackoffMillis;
+
+    private ForkJoinPool pool;
+    private ExecutorService apiExecutor;
+
+    @PostConstruct
+    public void init() {
+        int width = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(width, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false);
+        logger.info("Test engine runs up to {} test(s) in parallel", width);
+
+        if ("virtual".equalsIgnoreCase(apiMode)) {
+            apiExecutor = newApiExecutor();
+        }
+    }
+
+    // Blocks until every test finished or was skipped after cancellation; the sink sees each result
+    // as soon as its test completes
+    public List<TestResult> run(TestExecutionJob job, List<RegressionTestCase> tests,
+                                Consumer<TestResult> sink, CancellationToken token) {
+        ApiRunLimits limits = apiExecutor != null ? limitsFor(job) : null;
+        Consumer<TestResult> tracked = failFast(job, sink, token);
+        // Test threads don't inherit the job's trace context; each test span names it as parent
+        Observation parent = observationRegistry.getCurrentObservation();
+        LaneSlots lanes = new LaneSlots();
+        // Web tests only reach the pool while the job has a browser free for them, so pool threads never
+        // wait in borrow and other jobs' tests keep running
+        BoundedDispatcher<TestResult> webTests = new BoundedDispatcher<>(pool, webDriverPool.reservedFor(job));
+
+        List<Future<TestResult>> tasks = new ArrayList<>(tests.size());
+        for (RegressionTestCase test : tests) {
+            if (test.getType() != TestRunRequest.ExecutionType.API) {
+                tasks.add(webTests.submit(() -> runIfNotCancelled(job, test, tracked, token, parent, lanes)));
+            } else if (limits != null) {
+                tasks.add(limits.forTarget(test.getTarget(job))
+                        .submit(() -> runThrottled(job, test, limits, tracked, token, parent, lanes)));
+            } else {
+                tasks.add(pool.submit(() -> runIfNotCancelled(job, test, tracked, token, parent, lanes)));
+            }
+        }
+
+        List<TestResult> results = new ArrayList<>(tasks.size());
+        for (Future<TestResult> task : tasks) {
+            TestResult result = await(task);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    // The API aborts the run once its failures across all shards reach the fail-fast threshold. This is
+    // only a local shortcut: a shard that reaches the threshold by itself stops without waiting for
+    // the broadcast. Quarantined tests are expected to fail now and then, so their job never stops early.
+    private Consumer<TestResult> failFast(TestExecutionJob job, Consumer<TestResult> sink, CancellationToken token) {
+        Integer threshold = job.getTestRunRequest().getFailFastThreshold();
+        if (threshold == null || threshold <= 0 || job.isQuarantine()) {
+            return sink;
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        return result -> {
+            sink.accept(result);
+            if ("FAILED".equals(result.getStatus()) && failures.incrementAndGet() == threshold) {
+                logger.warn("Job {} reached {} failure(s) on its own, stopping it", job.getJobId(), threshold);
+                token.abort("Fail-fast after " + threshold + " failed test(s)");
+            }
+        };
+    }
+
+    private static TestResult await(Future<TestResult> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tests to finish", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Test task failed", e.getCause());
+        }
+    }
+
+    // Tests that never started after a cancellation produce no result
+    private TestResult runIfNotCancelled(TestExecutionJob job, RegressionTestCase test, Consumer<TestResult> sink,
+                                         CancellationToken token, Observation parent, LaneSlots lanes) {
+        if (token.isCancelled()) {
+            return null;
+        }
+        Observation observation = Observation.createNotStarted("regression.test", observationRegistry)
+                .parentObservation(parent)
+                .contextualName("test " + test.getName())
+                .lowCardinalityKeyValue("type", String.valueOf(test.getType()))
+                .highCardinalityKeyValue("test", test.getName())
+                .highCardinalityKeyValue("runId", job.getRunId());
+        // The sink runs inside the span, so result publishes show up as its children
+        return observation.observe(() -> {
+            int lane = lanes.claim();
+            TestResult result;
+            try {
+                result = runWithRetries(job, test, token);
+            } finally {
+                lanes.release(lane);
+            }
+            result.setLane("lane-" + (lane + 1));
+            observation.lowCardinalityKeyValue("status", result.getStatus());
+            sink.accept(result);
+            return result;
+        });
+    }
+
+    // A failed test is retried on its own, up to the run's retryCount, with jittered exponential backoff.
+    // Quarantined tests get one attempt: retrying known-flaky tests is the capacity quarantine saves.
+    private TestResult runWithRetries(TestExecutionJob job, RegressionTestCase test, CancellationToken token) {
+        Integer retryCount = job.getTestRunRequest().getRetryCount();
+        int maxAttempts = job.isQuarantine() ? 1 : 1 + Math.max(0, retryCount != null ? retryCount : 0);
+
+        int attempt = 1;
+        TestResult result = runIsolated(job, test, token);
+        LocalDateTime firstStart = result.getStartTime();
+        while (!"PASSED".equals(result.getStatus()) && !"SKIPPED".equals(result.getStatus())
+                && attempt < maxAttempts && !token.isCancelled()) {
+            long delay = Backoff.delayMillis(testInitialBackoffMillis, testMaxBackoffMillis, attempt);
+            logger.info("Retrying test '{}' for job {} in {} ms (attempt {}/{})",
+                    test.getName(), job.getJobId(), delay, attempt + 1, maxAttempts);
+            try {
+                token.sleep(delay);
+            } catch (CancellationException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            attempt++;
+            result = runIsolated(job, test, token);
+        }
+
+        result.setAttempts(attempt);
+        // The report timeline shows the whole time the test held its thread, backoff included
+        result.setStartTime(firstStart);
+        metrics.timer(WorkerMetrics.TEST_DURATION, WorkerMetrics.tags(job).and("status", result.getStatus()))
+                .record(result.getExecutionTime(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private TestResult runThrottled(TestExecutionJob job, RegressionTestCase test, ApiRunLimits limits,
+                                    Consumer<TestResult> sink, CancellationToken token, Observation parent,
+                                    LaneSlots lanes) {
+        try {
+            limits.awaitRateSlot(token);
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            TestResult result = new TestResult(test.getName(), "FAILED");
+            result.setErrorMessage("Interrupted while waiting for an API request slot");
+            result.setExecutionTime(0L);
+            result.setEndTime(LocalDateTime.now());
+            sink.accept(result);
+            return result;
+        }
+
+        return runIfNotCancelled(job, test, sink, token, parent, lanes);
+    }
+
+    // The pool's threads are shared by every job on this worker, so a thread name says nothing about one
+    // job's schedule. Each running test instead holds the job's lowest free slot, and the report draws one
+    // lane per slot: a job never shows more lanes than it had tests running at once.
+    private static final class LaneSlots {
+        private final BitSet taken = new BitSet();
+
+        synchronized int claim() {
+            int slot = taken.nextClearBit(0);
+            taken.set(slot);
+            return slot;
+        }
+
+        synchronized void release(int slot) {
+            taken.clear(slot);
+        }
+    }
+
+    // Request limits are per run, so a sharded run splits its request rate across shards
+    private ApiRunLimits limitsFor(TestExecutionJob job) {
+        TestRunRequest request = job.getTestRunRequest();
+        int concurrency = request.getApiConcurrencyPerTarget() != null
+                ? request.getApiConcurrencyPerTarget() : defaultConcurrencyPerTarget;
+        concurrency = Math.max(1, Math.min(concurrency, apiClientPool.getMaxPerHost()));
+
+        double requestsPerSecond = request.getApiRequestsPerSecond() != null
+                ? request.getApiRequestsPerSecond() : defaultRequestsPerSecond;
+        if (requestsPerSecond > 0) {
+            requestsPerSecond /= Math.max(1, job.getShardCount());
+        }
+        return new ApiRunLimits(apiExecutor, concurrency, requestsPerSecond);
+    }
+
+    // Virtual threads need Java 21, and the worker image runs 17. The fallback pool grows on demand, but
+    // tests only reach it once their target has a free slot, so it never holds more threads than the
+    // per-target limits of the jobs running.
+    private static ExecutorService newApiExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            logger.info("API tests run on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads are not available on Java {}; API tests use a cached thread pool",
+                    System.getProperty("java.version"));
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "api-test-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private TestResult runIsolated(TestExecutionJob job, RegressionTestCase test, CancellationToken token) {
+        TestResult result = new TestResult(test.getName(), "FAILED");
+        long startTime = System.currentTimeMillis();
+        TestContext context = new TestContext(job, webDriverPool, apiClientPool, token);
+
+        try {
+            test.run(context);
+            result.setStatus("PASSED");
+            logger.debug("Test '{}' passed for job {}", test.getName(), job.getJobId());
+        } catch (CancellationException e) {
+            result.setStatus("SKIPPED");
+            result.setErrorMessage("Cancelled: " + e.getMessage());
+            logger.info("Test '{}' cancelled for job {}", test.getName(), job.getJobId());
+        } catch (Exception | AssertionError e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            result.setStatus("FAILED");
+            result.setErrorMessage(e.getMessage());
+            result.setStackTrace(getStackTrace(e));
+            if (context.getBorrowedDriver() != null) {
+                result.setScreenshotHash(captureScreenshot(context.getBorrowedDriver(), test.getName(), job));
+            }
+            logger.info("Test '{}' failed for job {}: {}", test.getName(), job.getJobId(), e.getMessage());
+        } finally {
+            context.close();
+        }
+
+        result.setComponents(context.getTouchedComponents());
+        result.setExecutionTime(System.currentTimeMillis() - startTime);
+        result.setEndTime(LocalDateTime.now());
+        return result;
+    }
+
+    // Returns the screenshot's content hash; results carry the hash, not the image
+    private String captureScreenshot(WebDriver driver, String testName, TestExecutionJob job) {
+        long startNanos = System.nanoTime();
+        try {
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            String hash = screenshotStore.store(png);
+            metrics.record(WorkerMetrics.SCREENSHOT_CAPTURE, WorkerMetrics.tags(job), startNanos);
+            logger.debug("Screenshot captured: {}_Failure -> {}", testName, hash);
+            return hash;
+        } catch (Exception e) {
+            logger.error("Failed to capture screenshot", e);
+            return null;
+        }
+    }
+
+    private static String getStackTrace(Throwable e) {
+        StringWriter sw = new StringWriter();
+        e.printStackTrace(new PrintWriter(sw));
+        return sw.toString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+        if (apiExecutor != null) {
+            apiExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.regression.framework.worker.testcase;
+
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestRunRequest;
+
+import java.util.Set;
+
+// A single discoverable test; any Spring bean implementing this is picked up by TestCatalog
+public interface RegressionTestCase {
+
+    String getName();
+
+    // WEB or API; decides which runs select the test and whether it needs a browser
+    TestRunRequest.ExecutionType getType();
+
+    default Set<String> getTags() {
+        return Set.of();
+    }
+
+    // Host the test talks to in this job's run; API tests are throttled per target
+    default String getTarget(TestExecutionJob job) {
+        return null;
+    }
+
+    // Returning normally means PASSED; any exception or AssertionError marks the test FAILED
+    void run(TestContext context) throws Exception;
+}
@@ -0,0 +1,166 @@
+package com.regression.framework.worker.testcase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestRunRequest;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Discovers test cases from the classpath (Spring beans) and narrows them by suite manifest, tags
+// and the API's test-impact selection
+@Component
+public class TestCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestCatalog.class);
+    private static final Pattern SUITE_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    @Autowired(required = false)
+    private List<RegressionTestCase> discovered = Collections.emptyList();
+
+    @Value("${worker.engine.default-test-duration-ms:1000}")
+    private long defaultTestDurationMillis;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, RegressionTestCase> byName = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        discovered.stream()
+                .sorted(Comparator.comparing(RegressionTestCase::getName))
+                .forEach(test -> {
+                    RegressionTestCase previous = byName.putIfAbsent(test.getName(), test);
+                    if (previous != null) {
+                        logger.warn("Duplicate test name '{}': keeping {}, ignoring {}", test.getName(),
+                                previous.getClass().getSimpleName(), test.getClass().getSimpleName());
+                    }
+                });
+        logger.info("Discovered {} test case(s): {}", byName.size(), byName.keySet());
+    }
+
+    // Sorted by name, so every shard of a run sees the same list
+    public List<RegressionTestCase> select(TestExecutionJob job) {
+        TestRunRequest request = job.getTestRunRequest();
+        List<String> manifest = loadManifest(request.getTestSuiteName());
+        List<String> tags = request.getTags();
+        List<String> impactSelection = job.getTestNames();
+        List<String> changedComponents = request.getChangedComponents();
+        List<String> excluded = job.getExcludedTests();
+
+        List<RegressionTestCase> selected = new ArrayList<>();
+        for (RegressionTestCase test : byName.values()) {
+            if (!matchesType(test, request.getExecutionType())) {
+                continue;
+            }
+            if (manifest != null && !manifest.contains(test.getName())) {
+                continue;
+            }
+            if (tags != null && !tags.isEmpty() && Collections.disjoint(test.getTags(), tags)) {
+                continue;
+            }
+            if (excluded != null && excluded.contains(test.getName())) {
+                continue;
+            }
+            // The quarantine job runs exactly the quarantined tests
+            if (job.isQuarantine() && (impactSelection == null || !impactSelection.contains(test.getName()))) {
+                continue;
+            }
+            // Tests the API has no history for still run when they declare a changed component as a tag
+            if (impactSelection != null && !impactSelection.contains(test.getName())
+                    && (changedComponents == null || Collections.disjoint(test.getTags(), changedComponents))) {
+                continue;
+            }
+            selected.add(test);
+        }
+        return selected;
+    }
+
+    // The API packs the tests it has history for and sends each shard only its own estimates; tests it
+    // has never timed are placed by name hash, minus known tests that hash here but were packed elsewhere.
+    // The shard then runs slowest-first.
+    public List<RegressionTestCase> assignShard(TestExecutionJob job, List<RegressionTestCase> selected) {
+        Map<String, Long> expected = job.getExpectedDurations() != null ? job.getExpectedDurations() : Map.of();
+        Set<String> placedElsewhere = job.getPlacedElsewhere() != null
+                ? new HashSet<>(job.getPlacedElsewhere()) : Set.of();
+        long unknownDuration = defaultDuration(expected);
+        int shardCount = Math.max(1, job.getShardCount());
+
+        List<RegressionTestCase> assigned = new ArrayList<>();
+        long expectedLoad = 0;
+        for (RegressionTestCase test : selected) {
+            String name = test.getName();
+            if (shardCount > 1 && !expected.containsKey(name)
+                    && (placedElsewhere.contains(name)
+                    || TestExecutionJob.hashShard(name, shardCount) != job.getShardIndex())) {
+                continue;
+            }
+            assigned.add(test);
+            expectedLoad += expected.getOrDefault(name, unknownDuration);
+        }
+
+        assigned.sort(Comparator.comparingLong((RegressionTestCase test) ->
+                        expected.getOrDefault(test.getName(), unknownDuration)).reversed()
+                .thenComparing(RegressionTestCase::getName));
+        if (shardCount > 1) {
+            logger.info("Shard {}/{} of run {}: {} test(s), expected {} ms", job.getShardIndex() + 1,
+                    shardCount, job.getRunId(), assigned.size(), expectedLoad);
+        }
+        return assigned;
+    }
+
+    // Tests without history count as the median known test, or a configured guess on a cold start
+    private long defaultDuration(Map<String, Long> expected) {
+        if (expected.isEmpty()) {
+            return defaultTestDurationMillis;
+        }
+        List<Long> known = new ArrayList<>(expected.values());
+        Collections.sort(known);
+        return known.get(known.size() / 2);
+    }
+
+    public Set<String> getTestNames() {
+        return Collections.unmodifiableSet(byName.keySet());
+    }
+
+    private boolean matchesType(RegressionTestCase test, TestRunRequest.ExecutionType executionType) {
+        return executionType == TestRunRequest.ExecutionType.ALL || test.getType() == executionType;
+    }
+
+    // Optional classpath:suites/<suite>.json of the form {"tests": ["GooglePageTest", ...]}
+    @SuppressWarnings("unchecked")
+    private List<String> loadManifest(String suiteName) {
+        if (suiteName == null || !SUITE_NAME.matcher(suiteName).matches()) {
+            return null;
+        }
+
+        ClassPathResource resource = new ClassPathResource("suites/" + suiteName + ".json");
+        if (!resource.exists()) {
+            return null;
+        }
+
+        try (InputStream in = resource.getInputStream()) {
+            Map<String, Object> manifest = objectMapper.readValue(in, Map.class);
+            Object tests = manifest.get("tests");
+            return tests instanceof List ? (List<String>) tests : null;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable suite manifest {}: {}", resource.getPath(), e.getMessage());
+            return null;
+        }
+    }
+}
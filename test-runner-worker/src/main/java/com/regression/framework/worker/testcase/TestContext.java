@@ -0,0 +1,122 @@
+package com.regression.framework.worker.testcase;
+
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.worker.service.ApiClientPool;
+import com.regression.framework.worker.service.CancellationToken;
+import com.regression.framework.worker.service.WebDriverPool;
+import io.restassured.filter.Filter;
+import io.restassured.specification.RequestSpecification;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Per-test state: each test gets its own context, browser session and copy of the environment
+public class TestContext {
+
+    private final TestExecutionJob job;
+    private final WebDriverPool webDriverPool;
+    private final ApiClientPool apiClientPool;
+    private final CancellationToken cancellationToken;
+    private final Map<String, String> environment;
+    private final TouchedComponents touched = new TouchedComponents();
+    private WebDriver driver;
+    private WebDriver trackedDriver;
+
+    TestContext(TestExecutionJob job, WebDriverPool webDriverPool, ApiClientPool apiClientPool,
+                CancellationToken cancellationToken) {
+        this.job = job;
+        this.webDriverPool = webDriverPool;
+        this.apiClientPool = apiClientPool;
+        this.cancellationToken = cancellationToken;
+        Map<String, String> variables = job.getTestRunRequest().getEnvironmentVariables();
+        this.environment = variables != null ? new HashMap<>(variables) : new HashMap<>();
+    }
+
+    public TestExecutionJob getJob() { return job; }
+
+    // Run variables win over the worker's own environment, e.g. to point a run at a stub server
+    public String getEnvironmentVariable(String name, String defaultValue) {
+        return resolve(environment, name, defaultValue);
+    }
+
+    // The same lookup for code that runs before the test has a context, such as per-target throttling
+    public static String getEnvironmentVariable(TestExecutionJob job, String name, String defaultValue) {
+        return resolve(job.getTestRunRequest().getEnvironmentVariables(), name, defaultValue);
+    }
+
+    private static String resolve(Map<String, String> variables, String name, String defaultValue) {
+        String value = variables != null ? variables.get(name) : null;
+        if (value == null) {
+            value = System.getenv(name);
+        }
+        return value != null ? value : defaultValue;
+    }
+
+    // REST-Assured request backed by the worker's shared connection pool; every URL it calls is recorded
+    public RequestSpecification api() {
+        Filter recordTarget = (request, response, filterContext) -> {
+            touched.record(request.getURI());
+            return filterContext.next(request, response);
+        };
+        return apiClientPool.request().filter(recordTarget);
+    }
+
+    // Borrowed lazily so API tests never hold a browser slot; web tests use their job's reservation first.
+    // Tests get a decorated driver that records the pages they open.
+    public WebDriver getDriver() throws InterruptedException {
+        if (driver == null) {
+            driver = webDriverPool.borrow(job, cancellationToken);
+            trackedDriver = new EventFiringDecorator<>(new WebDriverListener() {
+                @Override
+                public void afterGet(WebDriver webDriver, String url) {
+                    touched.record(url);
+                }
+
+                @Override
+                public void afterTo(WebDriver.Navigation navigation, String url) {
+                    touched.record(url);
+                }
+
+                @Override
+                public void afterTo(WebDriver.Navigation navigation, URL url) {
+                    touched.record(url.toString());
+                }
+            }).decorate(driver);
+        }
+        return trackedDriver;
+    }
+
+    // Tests should wait through these rather than Thread.sleep so a cancelled run stops promptly
+    public void sleep(long millis) throws InterruptedException {
+        cancellationToken.sleep(millis);
+    }
+
+    public void checkCancelled() {
+        cancellationToken.throwIfCancelled();
+    }
+
+    WebDriver getBorrowedDriver() { return driver; }
+
+    // What the test reached, reported with its result so the API can learn which tests a change impacts
+    Set<String> getTouchedComponents() { return touched.snapshot(); }
+
+    void close() {
+        if (driver != null) {
+            // Pages reached by clicking through never pass through get()
+            try {
+                touched.record(driver.getCurrentUrl());
+            } catch (WebDriverException e) {
+                // The session is gone; its reset fails on release and the pool discards it
+            }
+            webDriverPool.release(driver);
+            driver = null;
+            trackedDriver = null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.regression.framework.worker.testcase;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Components a test actually reached, named by the first meaningful path segment of every URL it
+// requested or opened (/api/v2/checkout/cart -> checkout). The API learns test impact from these.
+class TouchedComponents {
+
+    private static final Pattern NOT_A_COMPONENT = Pattern.compile("api|v\\d+|\\d+");
+
+    private final Set<String> components = ConcurrentHashMap.newKeySet();
+
+    void record(String url) {
+        String component = componentOf(url);
+        if (component != null) {
+            components.add(component);
+        }
+    }
+
+    Set<String> snapshot() {
+        return new TreeSet<>(components);
+    }
+
+    static String componentOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        String path;
+        try {
+            path = URI.create(url.trim()).getPath();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (path == null) {
+            return null;
+        }
+        for (String segment : path.split("/")) {
+            String component = segment.toLowerCase(Locale.ROOT);
+            if (!component.isEmpty() && !NOT_A_COMPONENT.matcher(component).matches()) {
+                return component;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.regression.framework.worker.testcase.api;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class JsonPlaceholderApiTest extends RestApiTest {
+
+    public JsonPlaceholderApiTest() {
+        super("JSONPLACEHOLDER_BASE_URL", "https://jsonplaceholder.typicode.com", "/posts/1", 200);
+    }
+
+    @Override
+    public String getName() {
+        return "JSONPlaceholderAPI Test";
+    }
+
+    @Override
+    public Set<String> getTags() {
+        return Set.of("smoke", "regression", "api");
+    }
+}
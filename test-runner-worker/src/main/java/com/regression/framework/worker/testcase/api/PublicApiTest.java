@@ -0,0 +1,23 @@
+package com.regression.framework.worker.testcase.api;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class PublicApiTest extends RestApiTest {
+
+    public PublicApiTest() {
+        super("PUBLIC_API_BASE_URL", "https://httpbin.org", "/get", 200);
+    }
+
+    @Override
+    public String getName() {
+        return "PublicAPI Test";
+    }
+
+    @Override
+    public Set<String> getTags() {
+        return Set.of("regression", "api");
+    }
+}
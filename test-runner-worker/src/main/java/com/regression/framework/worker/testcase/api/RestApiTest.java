@@ -0,0 +1,46 @@
+package com.regression.framework.worker.testcase.api;
+
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.worker.testcase.RegressionTestCase;
+import com.regression.framework.worker.testcase.TestContext;
+
+import java.net.URI;
+
+// GETs a path and checks the status code; the base URL can be overridden per run to hit a stub
+public abstract class RestApiTest implements RegressionTestCase {
+
+    private final String baseUrlVariable;
+    private final String defaultBaseUrl;
+    private final String path;
+    private final int expectedStatus;
+
+    protected RestApiTest(String baseUrlVariable, String defaultBaseUrl, String path, int expectedStatus) {
+        this.baseUrlVariable = baseUrlVariable;
+        this.defaultBaseUrl = defaultBaseUrl;
+        this.path = path;
+        this.expectedStatus = expectedStatus;
+    }
+
+    @Override
+    public TestRunRequest.ExecutionType getType() {
+        return TestRunRequest.ExecutionType.API;
+    }
+
+    // Resolved like the request's base URL, so a run pointed at a stub is throttled on the stub's host:port
+    @Override
+    public String getTarget(TestExecutionJob job) {
+        URI baseUri = URI.create(TestContext.getEnvironmentVariable(job, baseUrlVariable, defaultBaseUrl));
+        return baseUri.getPort() != -1 ? baseUri.getHost() + ":" + baseUri.getPort() : baseUri.getHost();
+    }
+
+    @Override
+    public void run(TestContext context) {
+        context.api()
+                .baseUri(context.getEnvironmentVariable(baseUrlVariable, defaultBaseUrl))
+                .when()
+                .get(path)
+                .then()
+                .statusCode(expectedStatus);
+    }
+}
@@ -0,0 +1,23 @@
+package com.regression.framework.worker.testcase.web;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class GitHubPageTest extends PageTitleTest {
+
+    public GitHubPageTest() {
+        super("https://github.com", "github");
+    }
+
+    @Override
+    public String getName() {
+        return "GitHubPageTest";
+    }
+
+    @Override
+    public Set<String> getTags() {
+        return Set.of("regression", "web");
+    }
+}
@@ -0,0 +1,23 @@
+package com.regression.framework.worker.testcase.web;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class GooglePageTest extends PageTitleTest {
+
+    public GooglePageTest() {
+        super("https://www.google.com", "google");
+    }
+
+    @Override
+    public String getName() {
+        return "GooglePageTest";
+    }
+
+    @Override
+    public Set<String> getTags() {
+        return Set.of("smoke", "regression", "web");
+    }
+}
@@ -0,0 +1,42 @@
+package com.regression.framework.worker.testcase.web;
+
+import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.worker.testcase.RegressionTestCase;
+import com.regression.framework.worker.testcase.TestContext;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Opens a page and checks that its title contains a keyword
+public abstract class PageTitleTest implements RegressionTestCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageTitleTest.class);
+
+    private final String url;
+    private final String expectedKeyword;
+
+    protected PageTitleTest(String url, String expectedKeyword) {
+        this.url = url;
+        this.expectedKeyword = expectedKeyword;
+    }
+
+    @Override
+    public TestRunRequest.ExecutionType getType() {
+        return TestRunRequest.ExecutionType.WEB;
+    }
+
+    @Override
+    public void run(TestContext context) throws Exception {
+        WebDriver driver = context.getDriver();
+        context.checkCancelled();
+        driver.get(url);
+        String title = driver.getTitle();
+        logger.info("Page title: {}", title);
+
+        if (!title.toLowerCase().contains(expectedKeyword)) {
+            throw new AssertionError("Expected title to contain '" + expectedKeyword + "', but was: " + title);
+        }
+
+        context.sleep(1000);
+    }
+}
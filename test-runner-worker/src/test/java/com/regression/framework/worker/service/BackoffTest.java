@@ -0,0 +1,35 @@
+package com.regression.framework.worker.service;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class BackoffTest {
+
+    @Test
+    public void tierDelaysDoubleUpToTheCap() {
+        assertEquals(Backoff.tierDelayMillis(5000, 300000, 1), 5000);
+        assertEquals(Backoff.tierDelayMillis(5000, 300000, 2), 10000);
+        assertEquals(Backoff.tierDelayMillis(5000, 300000, 3), 20000);
+        assertEquals(Backoff.tierDelayMillis(5000, 300000, 7), 300000);
+        assertEquals(Backoff.tierDelayMillis(5000, 300000, 1000), 300000);
+    }
+
+    @Test
+    public void attemptsBelowOneWaitTheInitialDelay() {
+        assertEquals(Backoff.tierDelayMillis(500, 10000, 0), 500);
+        assertEquals(Backoff.tierDelayMillis(0, 10000, 1), 1);
+    }
+
+    @Test
+    public void jitteredDelayStaysWithinTheUpperHalfOfItsTier() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            long tier = Backoff.tierDelayMillis(500, 10000, attempt);
+            for (int i = 0; i < 100; i++) {
+                long delay = Backoff.delayMillis(500, 10000, attempt);
+                assertTrue(delay >= tier / 2 && delay <= tier, "attempt " + attempt + ": " + delay);
+            }
+        }
+    }
+}
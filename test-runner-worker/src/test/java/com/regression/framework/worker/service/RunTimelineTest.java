@@ -0,0 +1,83 @@
+package com.regression.framework.worker.service;
+
+import com.regression.framework.models.TestResult;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class RunTimelineTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    public void criticalLaneIsTheOneThatFinishedLast() {
+        RunTimeline timeline = RunTimeline.of(List.of(
+                result("a", "lane-1", 0, 100),
+                result("b", "lane-1", 150, 200),
+                result("c", "lane-2", 0, 300),
+                result("d", "lane-2", 300, 320)));
+
+        assertEquals(timeline.lanes().size(), 2);
+        assertEquals(timeline.testCount(), 4);
+        assertEquals(timeline.wallMillis(), 320);
+        assertEquals(timeline.busyMillis(), 470);
+        assertEquals(timeline.peakParallelism(), 2);
+        assertEquals(timeline.criticalLane().name(), "lane-2");
+        assertEquals(timeline.criticalIdleMillis(), 0);
+        assertEquals(names(timeline.criticalPath()), List.of("c", "d"));
+        // The longest test alone takes 300 ms; an even spread over two lanes would take 235
+        assertEquals(timeline.lowerBoundMillis(), 300);
+    }
+
+    @Test
+    public void packsResultsWithoutALaneIntoTheFewestLanes() {
+        RunTimeline timeline = RunTimeline.of(List.of(
+                result("a", null, 0, 100),
+                result("b", null, 50, 150),
+                result("c", null, 100, 200),
+                result("d", null, 150, 250)));
+
+        assertEquals(timeline.lanes().size(), 2);
+        assertEquals(timeline.peakParallelism(), 2);
+        for (RunTimeline.Lane lane : timeline.lanes()) {
+            assertTrue(lane.name().startsWith("packed-"));
+            assertEquals(lane.bars().size(), 2);
+        }
+    }
+
+    @Test
+    public void ignoresUntimedResults() {
+        TestResult untimed = new TestResult("skipped", "SKIPPED");
+
+        RunTimeline empty = RunTimeline.of(List.of(untimed));
+        assertEquals(empty.testCount(), 0);
+        assertNull(empty.criticalLane());
+        assertEquals(empty.criticalPath(), List.of());
+        assertEquals(empty.utilization(), 0.0);
+
+        RunTimeline timeline = RunTimeline.of(List.of(untimed, result("a", "lane-1", 0, 40)));
+        assertEquals(timeline.testCount(), 1);
+        assertEquals(timeline.utilization(), 100.0);
+    }
+
+    private static TestResult result(String name, String lane, long startMillis, long endMillis) {
+        TestResult result = new TestResult(name, "PASSED");
+        result.setLane(lane);
+        result.setStartTime(ORIGIN.plusNanos(startMillis * 1_000_000));
+        result.setEndTime(ORIGIN.plusNanos(endMillis * 1_000_000));
+        result.setExecutionTime(endMillis - startMillis);
+        return result;
+    }
+
+    private static List<String> names(List<RunTimeline.Bar> bars) {
+        List<String> names = new ArrayList<>();
+        bars.forEach(bar -> names.add(bar.result().getTestName()));
+        return names;
+    }
+}
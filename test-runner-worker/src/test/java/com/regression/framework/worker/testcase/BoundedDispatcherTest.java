@@ -0,0 +1,89 @@
+package com.regression.framework.worker.testcase;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class BoundedDispatcherTest {
+
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void neverRunsMoreThanTheLimitAtOnce() throws Exception {
+        BoundedDispatcher<Integer> dispatcher = new BoundedDispatcher<>(executor, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int task = i;
+            results.add(dispatcher.submit(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return task;
+            }));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(results.get(i).get(10, TimeUnit.SECONDS).intValue(), i);
+        }
+        assertTrue(peak.get() <= 2, "peak was " + peak.get());
+    }
+
+    @Test
+    public void aFailedTaskFreesItsSlot() throws Exception {
+        BoundedDispatcher<String> dispatcher = new BoundedDispatcher<>(executor, 1);
+
+        Future<String> failed = dispatcher.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        Future<String> next = dispatcher.submit(() -> "ran");
+
+        ExecutionException error = expectThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertEquals(next.get(10, TimeUnit.SECONDS), "ran");
+    }
+
+    @Test
+    public void failsQueuedTasksOnceTheExecutorIsShutDown() {
+        executor.shutdown();
+        BoundedDispatcher<String> dispatcher = new BoundedDispatcher<>(executor, 1);
+
+        Future<String> first = dispatcher.submit(() -> "never");
+        Future<String> second = dispatcher.submit(() -> "never");
+
+        for (Future<String> result : List.of(first, second)) {
+            ExecutionException error = expectThrows(ExecutionException.class, result::get);
+            assertTrue(error.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.regression.framework.worker.testcase;
+
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestRunRequest;
+import com.regression.framework.worker.service.ApiClientPool;
+import com.regression.framework.worker.service.CancellationRegistry;
+import com.regression.framework.worker.service.CancellationToken;
+import com.regression.framework.worker.testcase.api.JsonPlaceholderApiTest;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+// Runs a real REST test through the shared client pool against a local stub instead of the public API
+public class RestApiStubServerTest {
+
+    private HttpServer server;
+    private ApiClientPool apiClientPool;
+    private AtomicInteger requests;
+    private Set<Integer> clientPorts;
+    private volatile int status;
+
+    // TestNG reuses the instance across methods, so all per-test state is reset here
+    @BeforeMethod
+    public void setUp() throws IOException {
+        requests = new AtomicInteger();
+        clientPorts = ConcurrentHashMap.newKeySet();
+        status = 200;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/posts/1", exchange -> {
+            requests.incrementAndGet();
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        apiClientPool = new ApiClientPool();
+        ReflectionTestUtils.setField(apiClientPool, "maxTotal", 8);
+        ReflectionTestUtils.setField(apiClientPool, "maxPerHost", 4);
+        ReflectionTestUtils.setField(apiClientPool, "keepAliveSeconds", 30L);
+        ReflectionTestUtils.setField(apiClientPool, "connectTimeoutMillis", 2000);
+        ReflectionTestUtils.setField(apiClientPool, "socketTimeoutMillis", 5000);
+        apiClientPool.init();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        apiClientPool.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void reusesOneKeepAliveConnectionAcrossTests() throws Exception {
+        TestExecutionJob job = jobAgainstStub();
+        CancellationToken token = new CancellationRegistry().register(job);
+        JsonPlaceholderApiTest test = new JsonPlaceholderApiTest();
+
+        for (int i = 0; i < 5; i++) {
+            TestContext context = new TestContext(job, null, apiClientPool, token);
+            test.run(context);
+            context.close();
+        }
+
+        assertEquals(requests.get(), 5);
+        assertEquals(clientPorts.size(), 1, "expected every request on the same pooled connection");
+    }
+
+    @Test
+    public void failsWhenTheStubReturnsAnUnexpectedStatus() {
+        status = 503;
+        TestExecutionJob job = jobAgainstStub();
+        CancellationToken token = new CancellationRegistry().register(job);
+
+        assertThrows(AssertionError.class,
+                () -> new JsonPlaceholderApiTest().run(new TestContext(job, null, apiClientPool, token)));
+    }
+
+    @Test
+    public void recordsTheComponentEachRequestReached() {
+        TestExecutionJob job = jobAgainstStub();
+        TestContext context = new TestContext(job, null, apiClientPool, new CancellationRegistry().register(job));
+
+        new JsonPlaceholderApiTest().run(context);
+
+        assertEquals(context.getTouchedComponents(), Set.of("posts"));
+        assertEquals(TouchedComponents.componentOf("https://shop.example.com/api/v2/Checkout/cart/7"), "checkout");
+        assertEquals(TouchedComponents.componentOf("https://shop.example.com/"), null);
+    }
+
+    @Test
+    public void throttlesOnTheHostTheRunActuallyCalls() {
+        JsonPlaceholderApiTest test = new JsonPlaceholderApiTest();
+
+        assertEquals(test.getTarget(jobAgainstStub()), "localhost:" + server.getAddress().getPort());
+        assertEquals(test.getTarget(job(Map.of("JSONPLACEHOLDER_BASE_URL", "https://api.example.com"))),
+                "api.example.com");
+    }
+
+    private TestExecutionJob jobAgainstStub() {
+        return job(Map.of("JSONPLACEHOLDER_BASE_URL", "http://localhost:" + server.getAddress().getPort()));
+    }
+
+    private static TestExecutionJob job(Map<String, String> environment) {
+        TestRunRequest request = new TestRunRequest("StubSuite", null, environment, TestRunRequest.ExecutionType.API);
+        return new TestExecutionJob("run-1", request);
+    }
+}
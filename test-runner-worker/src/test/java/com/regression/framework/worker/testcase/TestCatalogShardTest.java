@@ -0,0 +1,112 @@
+package com.regression.framework.worker.testcase;
+
+import com.regression.framework.models.TestExecutionJob;
+import com.regression.framework.models.TestRunRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+// Shard slicing from the API's per-shard payload: known tests by estimate, the rest by name hash
+public class TestCatalogShardTest {
+
+    private TestCatalog catalog;
+
+    @BeforeMethod
+    public void setUp() {
+        catalog = new TestCatalog();
+        ReflectionTestUtils.setField(catalog, "defaultTestDurationMillis", 1000L);
+    }
+
+    @Test
+    public void runsOwnKnownTestsSlowestFirst() {
+        TestExecutionJob job = job(0, 1);
+        job.setExpectedDurations(Map.of("fast", 10L, "slow", 500L));
+
+        List<String> names = names(catalog.assignShard(job, tests("fast", "new", "slow")));
+
+        assertEquals(names, List.of("new", "slow", "fast"));
+    }
+
+    @Test
+    public void everyTestRunsOnExactlyOneShard() {
+        List<RegressionTestCase> selected = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            selected.add(test("test-" + i));
+        }
+        // The API packed test-0..test-9 onto shard i % 3, whatever their hash says
+        List<Map<String, Long>> packed = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        for (int i = 0; i < 10; i++) {
+            packed.get(i % 3).put("test-" + i, 100L);
+        }
+
+        List<String> seen = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            TestExecutionJob job = job(shard, 3);
+            job.setExpectedDurations(packed.get(shard));
+            List<String> elsewhere = new ArrayList<>();
+            for (int other = 0; other < 3; other++) {
+                for (String name : packed.get(other).keySet()) {
+                    if (other != shard && TestExecutionJob.hashShard(name, 3) == shard) {
+                        elsewhere.add(name);
+                    }
+                }
+            }
+            job.setPlacedElsewhere(elsewhere);
+
+            List<String> names = names(catalog.assignShard(job, selected));
+            assertTrue(names.containsAll(packed.get(shard).keySet()));
+            seen.addAll(names);
+        }
+
+        assertEquals(seen.size(), 30);
+        assertEquals(new HashSet<>(seen).size(), 30);
+    }
+
+    private static TestExecutionJob job(int shardIndex, int shardCount) {
+        TestExecutionJob job = new TestExecutionJob("RUN_1", new TestRunRequest());
+        job.setShardIndex(shardIndex);
+        job.setShardCount(shardCount);
+        return job;
+    }
+
+    private static List<RegressionTestCase> tests(String... names) {
+        List<RegressionTestCase> tests = new ArrayList<>();
+        for (String name : names) {
+            tests.add(test(name));
+        }
+        return tests;
+    }
+
+    private static RegressionTestCase test(String name) {
+        return new RegressionTestCase() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public TestRunRequest.ExecutionType getType() {
+                return TestRunRequest.ExecutionType.API;
+            }
+
+            @Override
+            public void run(TestContext context) {
+            }
+        };
+    }
+
+    private static List<String> names(List<RegressionTestCase> tests) {
+        List<String> names = new ArrayList<>();
+        tests.forEach(test -> names.add(test.getName()));
+        return names;
+    }
+}